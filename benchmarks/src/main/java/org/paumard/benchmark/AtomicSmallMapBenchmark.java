@@ -0,0 +1,101 @@
+/*
+ * Copyright (C) 2016 Jos Paumard
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+
+package org.paumard.benchmark;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.paumard.map.AtomicSmallMap;
+
+/**
+ * Reads and updates a map of a few entries shared by all the threads, an
+ * {@link AtomicSmallMap} or a {@code ConcurrentHashMap}. {@code get} reads a
+ * key that is always there, and {@code putRemove} adds then removes a key of
+ * its own thread, so that the map holds one entry plus one per thread at
+ * most. The main method runs it with 1 to 64 threads.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AtomicSmallMapBenchmark {
+
+    @Param({"AtomicSmallMap", "ConcurrentHashMap"})
+    private String implementation;
+
+    private ConcurrentMap<String, Integer> map;
+
+    @State(Scope.Thread)
+    public static class ThreadKey {
+
+        private static final AtomicInteger COUNTER = new AtomicInteger();
+
+        private final String key = "attribute-" + COUNTER.getAndIncrement();
+    }
+
+    @Setup
+    public void setup() {
+        switch (implementation) {
+            case "AtomicSmallMap": map = new AtomicSmallMap<>(); break;
+            case "ConcurrentHashMap": map = new ConcurrentHashMap<>(); break;
+            default: throw new IllegalArgumentException(implementation);
+        }
+        map.put("user", 1);
+    }
+
+    @Benchmark
+    public Integer get() {
+        return map.get("user");
+    }
+
+    @Benchmark
+    public Integer putRemove(ThreadKey threadKey) {
+        map.put(threadKey.key, 1);
+        return map.remove(threadKey.key);
+    }
+
+    public static void main(String... args) throws RunnerException {
+        for (int threads = 1; threads <= 64; threads *= 2) {
+            Options options = new OptionsBuilder()
+                    .include(AtomicSmallMapBenchmark.class.getSimpleName())
+                    .threads(threads)
+                    .build();
+            new Runner(options).run();
+        }
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright (C) 2016 Jos Paumard
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+
+package org.paumard.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.paumard.map.ColumnarMapList;
+import org.paumard.map.TwoElementsMap;
+
+/**
+ * Sums the values bound to one key in a list of two keys maps, stored as a
+ * list of {@code TwoElementsMap}, as a {@link ColumnarMapList} read row by
+ * row, and as the column of this key.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ColumnarMapListBenchmark {
+
+    @Param({"1000", "1000000"})
+    private int size;
+
+    private List<Map<String, Integer>> rows;
+    private ColumnarMapList<String, Integer> columnar;
+
+    @Setup
+    public void setup() {
+        rows = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            rows.add(TwoElementsMap.of("id", i, "count", i % 100));
+        }
+        columnar = ColumnarMapList.copyOf(rows);
+    }
+
+    @Benchmark
+    public long sumRows() {
+        long sum = 0L;
+        for (Map<String, Integer> row : rows) {
+            sum += row.get("count");
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long sumColumnarRows() {
+        long sum = 0L;
+        for (Map<String, Integer> row : columnar) {
+            sum += row.get("count");
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long sumColumn() {
+        return columnar.column("count").stream().mapToLong(Integer::longValue).sum();
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright (C) 2016 Jos Paumard
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+
+package org.paumard.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.paumard.collection.LambdaCollectors;
+
+/**
+ * Groups elements in many groups of one or two elements, each group being
+ * itself grouped by parity, with {@code Collectors.groupingBy()} and with
+ * {@link LambdaCollectors#groupingBySmall}. Run with {@code -prof gc} to
+ * compare the allocations.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class GroupingBenchmark {
+
+    @Param({"groupingBy", "groupingBySmall"})
+    private String implementation;
+
+    private List<Integer> elements;
+
+    @Setup
+    public void setup() {
+        elements = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            elements.add(i);
+        }
+    }
+
+    @Benchmark
+    public Map<Integer, Map<Boolean, List<Integer>>> group() {
+        switch (implementation) {
+            case "groupingBy":
+                return elements.stream().collect(
+                        Collectors.groupingBy(i -> i / 3,
+                                Collectors.groupingBy(i -> i % 2 == 0)));
+            case "groupingBySmall":
+                return elements.stream().collect(
+                        Collectors.groupingBy(i -> i / 3,
+                                LambdaCollectors.groupingBySmall(i -> i % 2 == 0)));
+            default: throw new IllegalArgumentException(implementation);
+        }
+    }
+}
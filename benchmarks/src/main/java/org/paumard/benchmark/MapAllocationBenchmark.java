@@ -0,0 +1,137 @@
+/*
+ * Copyright (C) 2016 Jos Paumard
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+
+package org.paumard.benchmark;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.paumard.map.SingleElementMap;
+import org.paumard.map.TwoElementsMap;
+
+/**
+ * Checks that reading a lambda map does not allocate. Run it through its
+ * main method: it fails if {@code get}, {@code forEach} or a loop over one of
+ * the views of the map allocate more than a few bytes per operation, which is
+ * the noise level of the GC profiler.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MapAllocationBenchmark {
+
+    private static final double ALLOCATION_THRESHOLD = 1.0;
+
+    @Param({"SingleElementMap", "TwoElementsMap"})
+    private String implementation;
+
+    private String probe;
+    private Map<String, Integer> map;
+
+    @Setup
+    public void setup() {
+        probe = new String("one");
+        switch (implementation) {
+            case "SingleElementMap": map = SingleElementMap.of("one", 1); break;
+            case "TwoElementsMap": map = TwoElementsMap.of("two", 2, "one", 1); break;
+            default: throw new IllegalArgumentException(implementation);
+        }
+    }
+
+    @Benchmark
+    public Integer get() {
+        return map.get(probe);
+    }
+
+    @Benchmark
+    public void forEach(Blackhole blackhole) {
+        map.forEach((key, value) -> {
+            blackhole.consume(key);
+            blackhole.consume(value);
+        });
+    }
+
+    @Benchmark
+    public void keySet(Blackhole blackhole) {
+        for (String key : map.keySet()) {
+            blackhole.consume(key);
+        }
+    }
+
+    @Benchmark
+    public void values(Blackhole blackhole) {
+        for (Integer value : map.values()) {
+            blackhole.consume(value);
+        }
+    }
+
+    @Benchmark
+    public void entrySet(Blackhole blackhole) {
+        for (Map.Entry<String, Integer> entry : map.entrySet()) {
+            blackhole.consume(entry.getKey());
+            blackhole.consume(entry.getValue());
+        }
+    }
+
+    @Benchmark
+    public boolean containsValue() {
+        return map.containsValue(1);
+    }
+
+    public static void main(String... args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(MapAllocationBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        boolean allocating = false;
+        for (RunResult result : new Runner(options).run()) {
+            Result<?> allocation = result.getSecondaryResults().get("gc.alloc.rate.norm");
+            if (allocation.getScore() > ALLOCATION_THRESHOLD) {
+                System.err.printf("%s %s allocates %.1f B/op%n",
+                        result.getParams().getBenchmark(), result.getParams().getParam("implementation"),
+                        allocation.getScore());
+                allocating = true;
+            }
+        }
+        if (allocating) {
+            System.exit(1);
+        }
+    }
+}
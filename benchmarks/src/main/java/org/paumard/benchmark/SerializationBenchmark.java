@@ -0,0 +1,107 @@
+/*
+ * Copyright (C) 2016 Jos Paumard
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+
+package org.paumard.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.paumard.collection.TwoElementsList;
+import org.paumard.map.TwoElementsMap;
+import org.paumard.serialization.LambdaCodec;
+
+/**
+ * Serializes two elements lists and maps, with Java serialization and with
+ * the binary format of {@link LambdaCodec}, and compares them with the JDK
+ * collections. The size of the serialized form is printed by the setup.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SerializationBenchmark {
+
+    @Param({"TwoElementsList", "TwoElementsList+LambdaCodec", "List.of", "ArrayList",
+            "TwoElementsMap", "TwoElementsMap+LambdaCodec", "Map.of", "HashMap"})
+    private String implementation;
+
+    private Object collection;
+    private boolean codec;
+    private byte[] bytes;
+
+    @Setup
+    public void setup() throws IOException, ClassNotFoundException {
+        switch (implementation) {
+            case "TwoElementsList":
+            case "TwoElementsList+LambdaCodec": collection = TwoElementsList.of("one", 2); break;
+            case "List.of": collection = List.of("one", 2); break;
+            case "ArrayList": collection = new ArrayList<>(List.of("one", 2)); break;
+            case "TwoElementsMap":
+            case "TwoElementsMap+LambdaCodec": collection = TwoElementsMap.of("one", 1, "two", 2); break;
+            case "Map.of": collection = Map.of("one", 1, "two", 2); break;
+            case "HashMap": collection = new HashMap<>(Map.of("one", 1, "two", 2)); break;
+            default: throw new IllegalArgumentException(implementation);
+        }
+        codec = implementation.endsWith("+LambdaCodec");
+        bytes = serialize();
+        if (!collection.equals(deserialize()))
+            throw new IllegalStateException(implementation + " does not survive serialization");
+        System.out.println(implementation + ": " + bytes.length + " bytes");
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        if (codec)
+            return LambdaCodec.toByteArray(collection);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ObjectOutputStream stream = new ObjectOutputStream(out)) {
+            stream.writeObject(collection);
+        }
+        return out.toByteArray();
+    }
+
+    @Benchmark
+    public Object deserialize() throws IOException, ClassNotFoundException {
+        if (codec)
+            return LambdaCodec.fromByteArray(bytes);
+        try (ObjectInputStream stream = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+            return stream.readObject();
+        }
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright (C) 2016 Jos Paumard
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+
+package org.paumard.benchmark;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.paumard.map.SmallMap;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SmallMapBenchmark {
+
+    @Param({"SmallMap", "Map.of", "HashMap"})
+    private String implementation;
+
+    @Param({"3", "4", "8", "16", "32"})
+    private int size;
+
+    private String[] probes;
+    private String missingProbe;
+    private Map<String, Integer> map;
+
+    @Setup
+    public void setup() {
+        Map<String, Integer> entries = new HashMap<>();
+        probes = new String[size];
+        for (int i = 0; i < size; i++) {
+            entries.put("key-" + i, i);
+            probes[i] = new String("key-" + i);
+        }
+        missingProbe = "missing";
+        switch (implementation) {
+            case "SmallMap": map = SmallMap.copyOf(entries); break;
+            case "Map.of": map = Map.copyOf(entries); break;
+            case "HashMap": map = entries; break;
+            default: throw new IllegalArgumentException(implementation);
+        }
+    }
+
+    @Benchmark
+    public void get(Blackhole blackhole) {
+        for (String probe : probes) {
+            blackhole.consume(map.get(probe));
+        }
+    }
+
+    @Benchmark
+    public Integer getMissing() {
+        return map.get(missingProbe);
+    }
+
+    @Benchmark
+    public void forEach(Blackhole blackhole) {
+        map.forEach((key, value) -> {
+            blackhole.consume(key);
+            blackhole.consume(value);
+        });
+    }
+
+    @Benchmark
+    public void iteration(Blackhole blackhole) {
+        for (Map.Entry<String, Integer> entry : map.entrySet()) {
+            blackhole.consume(entry.getKey());
+            blackhole.consume(entry.getValue());
+        }
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright (C) 2016 Jos Paumard
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+
+package org.paumard.benchmark;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.paumard.collection.SingletonList;
+import org.paumard.collection.TwoElementsList;
+
+/**
+ * Runs short stream pipelines on lists of one or two elements, with the
+ * streams of the lambda lists and with the streams of the JDK lists.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SmallStreamBenchmark {
+
+    @Param({"SingletonList", "List.of(1)", "TwoElementsList", "List.of(2)"})
+    private String implementation;
+
+    private List<String> list;
+
+    @Setup
+    public void setup() {
+        switch (implementation) {
+            case "SingletonList": list = SingletonList.of("one"); break;
+            case "List.of(1)": list = List.of("one"); break;
+            case "TwoElementsList": list = TwoElementsList.of("one", "two"); break;
+            case "List.of(2)": list = List.of("one", "two"); break;
+            default: throw new IllegalArgumentException(implementation);
+        }
+    }
+
+    @Benchmark
+    public Optional<Integer> mapFilterFindFirst() {
+        return list.stream().map(String::length).filter(length -> length > 2).findFirst();
+    }
+
+    @Benchmark
+    public boolean anyMatch() {
+        return list.stream().anyMatch(s -> s.startsWith("t"));
+    }
+
+    @Benchmark
+    public List<Integer> mapCollect() {
+        return list.stream().map(String::length).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright (C) 2016 Jos Paumard
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+
+package org.paumard.benchmark;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.paumard.collection.TwoElementsList;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TwoElementsListBenchmark {
+
+    @Param({"TwoElementsList", "Arrays.asList", "List.of", "ArrayList"})
+    private String implementation;
+
+    private String probe;
+    private List<String> list;
+
+    @Setup
+    public void setup() {
+        String e1 = "one";
+        String e2 = "two";
+        probe = new String(e2);
+        switch (implementation) {
+            case "TwoElementsList": list = TwoElementsList.of(e1, e2); break;
+            case "Arrays.asList": list = Arrays.asList(e1, e2); break;
+            case "List.of": list = List.of(e1, e2); break;
+            case "ArrayList": list = new ArrayList<>(Arrays.asList(e1, e2)); break;
+            default: throw new IllegalArgumentException(implementation);
+        }
+    }
+
+    @Benchmark
+    public String get() {
+        return list.get(1);
+    }
+
+    @Benchmark
+    public boolean contains() {
+        return list.contains(probe);
+    }
+
+    @Benchmark
+    public void iteration(Blackhole blackhole) {
+        for (String s : list) {
+            blackhole.consume(s);
+        }
+    }
+
+    @Benchmark
+    public void forEach(Blackhole blackhole) {
+        list.forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public long stream() {
+        return list.stream().mapToInt(String::length).sum();
+    }
+
+    @Benchmark
+    public Object[] toArray() {
+        return list.toArray();
+    }
+}
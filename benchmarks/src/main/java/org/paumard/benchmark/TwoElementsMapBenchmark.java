@@ -0,0 +1,101 @@
+/*
+ * Copyright (C) 2016 Jos Paumard
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+
+package org.paumard.benchmark;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.paumard.map.TwoElementsMap;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TwoElementsMapBenchmark {
+
+    @Param({"TwoElementsMap", "Map.of", "HashMap"})
+    private String implementation;
+
+    private String probe;
+    private Map<String, Integer> map;
+
+    @Setup
+    public void setup() {
+        String key1 = "one";
+        String key2 = "two";
+        probe = new String(key2);
+        switch (implementation) {
+            case "TwoElementsMap": map = TwoElementsMap.of(key1, 1, key2, 2); break;
+            case "Map.of": map = Map.of(key1, 1, key2, 2); break;
+            case "HashMap": map = new HashMap<>(Map.of(key1, 1, key2, 2)); break;
+            default: throw new IllegalArgumentException(implementation);
+        }
+    }
+
+    @Benchmark
+    public Integer get() {
+        return map.get(probe);
+    }
+
+    @Benchmark
+    public boolean containsKey() {
+        return map.containsKey(probe);
+    }
+
+    @Benchmark
+    public void iteration(Blackhole blackhole) {
+        for (Map.Entry<String, Integer> entry : map.entrySet()) {
+            blackhole.consume(entry.getKey());
+            blackhole.consume(entry.getValue());
+        }
+    }
+
+    @Benchmark
+    public void forEach(Blackhole blackhole) {
+        map.forEach((key, value) -> {
+            blackhole.consume(key);
+            blackhole.consume(value);
+        });
+    }
+
+    @Benchmark
+    public long stream() {
+        return map.entrySet().stream().mapToInt(Map.Entry::getValue).sum();
+    }
+
+    @Benchmark
+    public Object[] toArray() {
+        return map.keySet().toArray();
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright (C) 2016 Jos Paumard
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+
+package org.paumard.benchmark;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.paumard.collection.TwoElementsSet;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TwoElementsSetBenchmark {
+
+    @Param({"TwoElementsSet", "Set.of", "HashSet"})
+    private String implementation;
+
+    private String probe;
+    private Set<String> set;
+
+    @Setup
+    public void setup() {
+        String e1 = "one";
+        String e2 = "two";
+        probe = new String(e2);
+        switch (implementation) {
+            case "TwoElementsSet": set = TwoElementsSet.of(e1, e2); break;
+            case "Set.of": set = Set.of(e1, e2); break;
+            case "HashSet": set = new HashSet<>(Set.of(e1, e2)); break;
+            default: throw new IllegalArgumentException(implementation);
+        }
+    }
+
+    @Benchmark
+    public boolean contains() {
+        return set.contains(probe);
+    }
+
+    @Benchmark
+    public void iteration(Blackhole blackhole) {
+        for (String s : set) {
+            blackhole.consume(s);
+        }
+    }
+
+    @Benchmark
+    public void forEach(Blackhole blackhole) {
+        set.forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public long stream() {
+        return set.stream().mapToInt(String::length).sum();
+    }
+
+    @Benchmark
+    public Object[] toArray() {
+        return set.toArray();
+    }
+}
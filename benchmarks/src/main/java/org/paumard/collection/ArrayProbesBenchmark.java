@@ -0,0 +1,119 @@
+/*
+ * Copyright (C) 2016 Jos Paumard
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+
+package org.paumard.collection;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Looks for a value that is not in an array of ints, longs or doubles of the
+ * given size, with a scalar loop and with {@link ArrayProbes}, that uses the
+ * Vector API on Java 17 and later. The size from which the vectorized search
+ * is faster than the loop depends on the width of the vectors of the CPU.
+ * <p>
+ * This benchmark is in the package of {@code ArrayProbes}, since the searches
+ * in arrays of longs and doubles are not public. The Vector API is only used
+ * if its module is added to the forked JVMs, with
+ * {@code -jvmArgsAppend "--add-modules jdk.incubator.vector"}: it cannot be
+ * added here, since a JVM that does not have this module would not start.
+ * Without it, the {@code probes} cases measure the scalar fallback of
+ * {@code ArrayProbes}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ArrayProbesBenchmark {
+
+    @Param({"2", "4", "8", "16", "32", "64"})
+    private int size;
+
+    @Param({"loop", "probes"})
+    private String search;
+
+    private boolean loop;
+    private int[] ints;
+    private long[] longs;
+    private double[] doubles;
+
+    @Setup
+    public void setup() {
+        loop = search.equals("loop");
+        if (!loop && !ArrayProbes.isVectorized())
+            System.out.println("The Vector API is not available: ArrayProbes uses its scalar loop");
+        ints = new int[size];
+        longs = new long[size];
+        doubles = new double[size];
+        for (int i = 0; i < size; i++) {
+            ints[i] = 2 * i;
+            longs[i] = 2L * i;
+            doubles[i] = 2.0d * i;
+        }
+    }
+
+    @Benchmark
+    public int indexOfInt() {
+        if (loop) {
+            for (int i = 0; i < ints.length; i++) {
+                if (ints[i] == -1)
+                    return i;
+            }
+            return -1;
+        }
+        return ArrayProbes.indexOf(ints, 0, ints.length, -1);
+    }
+
+    @Benchmark
+    public int indexOfLong() {
+        if (loop) {
+            for (int i = 0; i < longs.length; i++) {
+                if (longs[i] == -1L)
+                    return i;
+            }
+            return -1;
+        }
+        return ArrayProbes.indexOf(longs, 0, longs.length, -1L);
+    }
+
+    // -1.0 is neither NaN nor a zero, so the vectorized search is used
+    @Benchmark
+    public int indexOfDouble() {
+        if (loop) {
+            for (int i = 0; i < doubles.length; i++) {
+                if (doubles[i] == -1.0d)
+                    return i;
+            }
+            return -1;
+        }
+        return ArrayProbes.indexOf(doubles, 0, doubles.length, -1.0d);
+    }
+}
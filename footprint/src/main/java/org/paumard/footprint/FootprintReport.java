@@ -0,0 +1,153 @@
+/*
+ * Copyright (C) 2016 Jos Paumard
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+
+package org.paumard.footprint;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import org.openjdk.jol.info.GraphLayout;
+import org.openjdk.jol.vm.VM;
+import org.paumard.collection.LambdaCollections;
+import org.paumard.collection.SingletonList;
+import org.paumard.collection.SingletonSet;
+import org.paumard.collection.TwoElementsList;
+import org.paumard.collection.TwoElementsSet;
+import org.paumard.map.KeyValueEntry;
+import org.paumard.map.SingleElementMap;
+import org.paumard.map.TwoElementsMap;
+
+/**
+ * Prints the number of bytes used by the lambda collections and by the JDK
+ * collections of one or two elements, measured by walking their object graph
+ * with JOL, and estimated by {@link LambdaCollections#retainedSize}. The
+ * elements are not counted: only the collection itself is.
+ * <p>
+ * Each lambda collection has a budget of bytes, with and without compressed
+ * oops. The run fails if the size measured with JOL is over this budget. The
+ * JDK collections are there for comparison and have no budget.
+ * <p>
+ * Without argument, the report is run in two JVMs, with and without
+ * compressed oops. With the {@code report} argument, it is run in the
+ * current JVM.
+ */
+public class FootprintReport {
+
+    public static void main(String... args) throws IOException, InterruptedException {
+        if (args.length > 0 && args[0].equals("report")) {
+            if (!report())
+                System.exit(1);
+        } else {
+            fork("-XX:+UseCompressedOops");
+            fork("-XX:-UseCompressedOops");
+        }
+    }
+
+    private static void fork(String option) throws IOException, InterruptedException {
+        String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+        Process process = new ProcessBuilder(java, option, "-Djdk.attach.allowAttachSelf",
+                "-cp", System.getProperty("java.class.path"), FootprintReport.class.getName(), "report")
+                .inheritIO()
+                .start();
+        if (process.waitFor() != 0)
+            throw new IllegalStateException("Report failed with " + option);
+    }
+
+    // returns false if a collection is over its budget
+    private static boolean report() {
+        System.out.println(VM.current().details());
+        boolean compressedOops = VM.current().arrayIndexScale(Object[].class.getName()) == 4;
+        Map<String, long[]> budgets = budgets();
+        List<String> overBudget = new ArrayList<>();
+        System.out.printf("%-30s %10s %10s %10s%n", "Collection", "JOL", "Estimate", "Budget");
+        collections().forEach((name, supplier) -> {
+            Object[] elements = {1001, 1002, 1003, 1004};
+            Object collection = supplier.get().apply(elements);
+            long jol = GraphLayout.parseInstance(collection)
+                    .subtract(GraphLayout.parseInstance(elements))
+                    .totalSize();
+            long estimate = LambdaCollections.retainedSize(new Object[] {collection, elements})
+                    - LambdaCollections.retainedSize(elements)
+                    - LambdaCollections.retainedSize(new Object[2]);
+            long[] budget = budgets.get(name);
+            if (budget == null) {
+                System.out.printf("%-30s %10d %10d %10s%n", name, jol, estimate, "-");
+            } else {
+                long bytes = compressedOops ? budget[0] : budget[1];
+                System.out.printf("%-30s %10d %10d %10d%n", name, jol, estimate, bytes);
+                if (jol > bytes)
+                    overBudget.add(name + " uses " + jol + " bytes, budget is " + bytes);
+            }
+        });
+        System.out.println();
+        overBudget.forEach(message -> System.out.println("Over budget: " + message));
+        return overBudget.isEmpty();
+    }
+
+    // the budgets of the lambda collections, in bytes: with and without
+    // compressed oops
+    private static Map<String, long[]> budgets() {
+        Map<String, long[]> budgets = new HashMap<>();
+        budgets.put("SingletonList", new long[] {24L, 24L});
+        budgets.put("TwoElementsList", new long[] {24L, 32L});
+        budgets.put("SingletonSet", new long[] {24L, 24L});
+        budgets.put("TwoElementsSet", new long[] {24L, 32L});
+        budgets.put("SingleElementMap", new long[] {64L, 96L});
+        budgets.put("TwoElementsMap", new long[] {104L, 152L});
+        budgets.put("KeyValueEntry", new long[] {24L, 32L});
+        return budgets;
+    }
+
+    // builds a collection with the first elements of the given array, the only
+    // objects that are not counted
+    private interface Factory {
+
+        Object apply(Object[] e);
+    }
+
+    private static Map<String, Supplier<Factory>> collections() {
+        Map<String, Supplier<Factory>> collections = new LinkedHashMap<>();
+        collections.put("SingletonList", () -> e -> SingletonList.of(e[0]));
+        collections.put("List.of(1)", () -> e -> List.of(e[0]));
+        collections.put("ArrayList(1)", () -> e -> new ArrayList<>(List.of(e[0])));
+        collections.put("TwoElementsList", () -> e -> TwoElementsList.of(e[0], e[1]));
+        collections.put("List.of(2)", () -> e -> List.of(e[0], e[1]));
+        collections.put("ArrayList(2)", () -> e -> new ArrayList<>(Arrays.asList(e[0], e[1])));
+        collections.put("SingletonSet", () -> e -> SingletonSet.of(e[0]));
+        collections.put("Set.of(1)", () -> e -> java.util.Set.of(e[0]));
+        collections.put("TwoElementsSet", () -> e -> TwoElementsSet.of(e[0], e[1]));
+        collections.put("Set.of(2)", () -> e -> java.util.Set.of(e[0], e[1]));
+        collections.put("SingleElementMap", () -> e -> SingleElementMap.of(e[0], e[1]));
+        collections.put("Collections.singletonMap", () -> e -> Collections.singletonMap(e[0], e[1]));
+        collections.put("HashMap(1)", () -> e -> new HashMap<>(Map.of(e[0], e[1])));
+        collections.put("TwoElementsMap", () -> e -> TwoElementsMap.of(e[0], e[1], e[2], e[3]));
+        collections.put("Map.of(2)", () -> e -> Map.of(e[0], e[1], e[2], e[3]));
+        collections.put("HashMap(2)", () -> e -> new HashMap<>(Map.of(e[0], e[1], e[2], e[3])));
+        collections.put("KeyValueEntry", () -> e -> KeyValueEntry.of(e[0], e[1]));
+        collections.put("Map.entry", () -> e -> Map.entry(e[0], e[1]));
+        return collections;
+    }
+}
@@ -0,0 +1,563 @@
+/*
+ * Copyright (C) 2016 Jos Paumard
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+
+package org.paumard.build;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.function.IntFunction;
+
+/**
+ * Generates the fixed-arity lists, sets and maps, from three to eight elements.
+ * <p>
+ * Every generated type captures its elements in an instance that maps an index
+ * to an element through a single {@code switch}, compiled to a {@code tableswitch}:
+ * the lookup is the same jump whatever the arity. This instance also caches the
+ * hash code of the collection, computed once from the captured elements. The
+ * two-elements types are written by hand and are not generated.
+ * <p>
+ * Usage: {@code LambdaCollectionsGenerator <output directory>}
+ */
+public class LambdaCollectionsGenerator {
+
+    static final int MIN_ARITY = 3;
+    static final int MAX_ARITY = 8;
+
+    private static final String[] NAMES = {
+            "Zero", "One", "Two", "Three", "Four", "Five", "Six", "Seven", "Eight"
+    };
+
+    private static final String HEADER =
+            "/*\n" +
+            " * Copyright (C) 2016 Jos\u00e9 Paumard\n" +
+            " *\n" +
+            " * This program is free software; you can redistribute it and/or\n" +
+            " * modify it under the terms of the GNU General Public License\n" +
+            " * as published by the Free Software Foundation; either version 2\n" +
+            " * of the License, or (at your option) any later version.\n" +
+            " *\n" +
+            " * This program is distributed in the hope that it will be useful,\n" +
+            " * but WITHOUT ANY WARRANTY; without even the implied warranty of\n" +
+            " * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the\n" +
+            " * GNU General Public License for more details.\n" +
+            " *\n" +
+            " * You should have received a copy of the GNU General Public License\n" +
+            " * along with this program; if not, write to the Free Software\n" +
+            " * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.\n" +
+            " */\n" +
+            "\n";
+
+    public static void main(String... args) throws IOException {
+        if (args.length != 1)
+            throw new IllegalArgumentException("Usage: LambdaCollectionsGenerator <output directory>");
+        Path output = Paths.get(args[0]);
+        for (int n = MIN_ARITY; n <= MAX_ARITY; n++) {
+            write(output, "org.paumard.collection", listName(n), list(n));
+            write(output, "org.paumard.collection", setName(n), set(n));
+            write(output, "org.paumard.map", mapName(n), map(n));
+        }
+    }
+
+    private static void write(Path output, String packageName, String typeName, String body) throws IOException {
+        Path directory = output.resolve(packageName.replace('.', '/'));
+        Files.createDirectories(directory);
+        Path file = directory.resolve(typeName + ".java");
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.ISO_8859_1)) {
+            writer.write(HEADER);
+            writer.write("package " + packageName + ";\n\n");
+            writer.write(body);
+        }
+    }
+
+    static String listName(int n) {
+        return n == 1 ? "SingletonList" : NAMES[n] + "ElementsList";
+    }
+
+    static String setName(int n) {
+        return n == 1 ? "SingletonSet" : NAMES[n] + "ElementsSet";
+    }
+
+    static String mapName(int n) {
+        return n == 1 ? "SingleElementMap" : NAMES[n] + "ElementsMap";
+    }
+
+    // e1, e2, ..., en
+    private static String join(int n, String separator, IntFunction<String> element) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < n; i++) {
+            if (i > 0)
+                sb.append(separator);
+            sb.append(element.apply(i));
+        }
+        return sb.toString();
+    }
+
+    private static String requireNonNull(int n, IntFunction<String> element) {
+        return join(n, "", i -> "        Objects.requireNonNull(" + element.apply(i) + ");\n");
+    }
+
+    private static String distinct(int n, IntFunction<String> element) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < n; i++) {
+            for (int j = i + 1; j < n; j++) {
+                sb.append(sb.length() == 0 ? "" : " ||\n            ");
+                sb.append(element.apply(i)).append(".equals(").append(element.apply(j)).append(")");
+            }
+        }
+        return sb.toString();
+    }
+
+    // the instance returned by the factory: the index lookup, plus the cached hash code and equals()
+    private static String instance(String type, String element, int n, IntFunction<String> elements,
+                                   String hashCode, String sameArityEquals, String equals) {
+        return instance(type, element, n, elements, hashCode, sameArityEquals, equals, "", "");
+    }
+
+    // fields and members are added to the anonymous class, before and after its methods
+    private static String instance(String type, String element, int n, IntFunction<String> elements,
+                                   String hashCode, String sameArityEquals, String equals,
+                                   String fields, String members) {
+        return "" +
+"        int hashCode = " + hashCode + ";\n" +
+"        return new " + type + "() {\n" +
+fields +
+"            public " + element + " apply(int i) {\n" +
+"                switch (i) {\n" +
+join(n, "", i -> "                    case " + i + ": return " + elements.apply(i) + ";\n") +
+"                    default: throw new IndexOutOfBoundsException();\n" +
+"                }\n" +
+"            }\n" +
+"\n" +
+"            public int hashCode() {\n" +
+"                return hashCode;\n" +
+"            }\n" +
+"\n" +
+"            public boolean equals(Object o) {\n" +
+sameArityEquals +
+"                return " + equals + ";\n" +
+"            }\n" +
+members +
+"        };\n";
+    }
+
+    // the view is built on first use by the default method of the interface
+    private static String cachedView(String name, String type, String view) {
+        return "\n" +
+"            public " + type + " " + view + "() {\n" +
+"                " + type + " " + view + " = this." + view + ";\n" +
+"                if (" + view + " == null) {\n" +
+"                    this." + view + " = " + view + " = " + name + ".super." + view + "();\n" +
+"                }\n" +
+"                return " + view + ";\n" +
+"            }\n";
+    }
+
+    // 31 * (31 * (31 + h1) + h2) + h3
+    private static String listHashCode(int n, IntFunction<String> element) {
+        String hashCode = "31 + " + element.apply(0) + ".hashCode()";
+        for (int i = 1; i < n; i++) {
+            hashCode = "31 * (" + hashCode + ") + " + element.apply(i) + ".hashCode()";
+        }
+        return hashCode;
+    }
+
+    private static String unsupported(String... signatures) {
+        StringBuilder sb = new StringBuilder();
+        for (String signature : signatures) {
+            sb.append("\n" +
+                      "    default " + signature + " {\n" +
+                      "        throw new UnsupportedOperationException();\n" +
+                      "    }\n");
+        }
+        return sb.toString();
+    }
+
+    static String list(int n) {
+        String name = listName(n);
+        IntFunction<String> e = i -> "e" + (i + 1);
+        IntFunction<String> get = i -> "get(" + i + ")";
+        StringBuilder subList = new StringBuilder();
+        for (int k = 0; k <= n; k++) {
+            subList.append("            case ").append(k).append(": return ");
+            if (k == 0) {
+                subList.append("Collections.emptyList();\n");
+            } else if (k == n) {
+                subList.append("this;\n");
+            } else {
+                subList.append(listName(k)).append(".of(")
+                       .append(join(k, ", ", i -> i == 0 ? "get(fromIndex)" : "get(fromIndex + " + i + ")"))
+                       .append(");\n");
+            }
+        }
+        return "" +
+"import java.util.Arrays;\n" +
+"import java.util.Collection;\n" +
+"import java.util.Collections;\n" +
+"import java.util.Comparator;\n" +
+"import java.util.Iterator;\n" +
+"import java.util.List;\n" +
+"import java.util.ListIterator;\n" +
+"import java.util.Objects;\n" +
+"import java.util.Spliterator;\n" +
+"import java.util.function.Consumer;\n" +
+"import java.util.function.IntFunction;\n" +
+"import java.util.function.Predicate;\n" +
+"import java.util.function.UnaryOperator;\n" +
+"\n" +
+"import org.paumard.collection.iterator.IndexedIterator;\n" +
+"import org.paumard.collection.spliterator.IndexedSpliterator;\n" +
+"\n" +
+"@FunctionalInterface\n" +
+"public interface " + name + "<E> extends List<E>, IntFunction<E> {\n" +
+"\n" +
+"    static <E> " + name + "<E> of(" + join(n, ", ", i -> "E " + e.apply(i)) + ") {\n" +
+requireNonNull(n, e) +
+instance(name + "<E>", "E", n, e,
+        listHashCode(n, e),
+        "                if (o instanceof " + name + ") {\n" +
+        "                    " + name + "<?> other = (" + name + "<?>) o;\n" +
+        "                    return (o.getClass() != getClass() || hashCode == o.hashCode()) &&\n" +
+        "                           " + join(n, " &&\n                           ",
+                i -> e.apply(i) + ".equals(other.get(" + i + "))") + ";\n" +
+        "                }\n",
+        "CollectionContracts.listEquals(this, o)") +
+"    }\n" +
+"\n" +
+"    default E get(int index) {\n" +
+"        return this.apply(index);\n" +
+"    }\n" +
+"\n" +
+"    default int size() {\n" +
+"        return " + n + ";\n" +
+"    }\n" +
+"\n" +
+"    default boolean isEmpty() {\n" +
+"        return false;\n" +
+"    }\n" +
+"\n" +
+"    default boolean contains(Object o) {\n" +
+"        return " + join(n, " || ", i -> get.apply(i) + ".equals(o)") + ";\n" +
+"    }\n" +
+"\n" +
+"    default Iterator<E> iterator() {\n" +
+"        return new IndexedIterator<>(this, " + n + ");\n" +
+"    }\n" +
+"\n" +
+"    default Spliterator<E> spliterator() {\n" +
+"        return new IndexedSpliterator<>(this, " + n + ",\n" +
+"                Spliterator.IMMUTABLE | Spliterator.NONNULL | Spliterator.ORDERED |\n" +
+"                Spliterator.SIZED | Spliterator.SUBSIZED);\n" +
+"    }\n" +
+"\n" +
+"    default Object[] toArray() {\n" +
+"        return new Object[] { " + join(n, ", ", get) + " };\n" +
+"    }\n" +
+"\n" +
+"    @SuppressWarnings(\"unchecked\")\n" +
+"    default <T> T[] toArray(T[] a) {\n" +
+"        return (T[]) Arrays.copyOf(toArray(), " + n + ", a.getClass());\n" +
+"    }\n" +
+"\n" +
+"    default int indexOf(Object o) {\n" +
+"        return " + join(n, " : ", i -> get.apply(i) + ".equals(o) ? " + i) + " : -1;\n" +
+"    }\n" +
+"\n" +
+"    default int lastIndexOf(Object o) {\n" +
+"        return " + join(n, " : ", i -> get.apply(n - 1 - i) + ".equals(o) ? " + (n - 1 - i)) + " : -1;\n" +
+"    }\n" +
+"\n" +
+"    default ListIterator<E> listIterator() {\n" +
+"        return listIterator(0);\n" +
+"    }\n" +
+"\n" +
+"    default ListIterator<E> listIterator(final int index) {\n" +
+"        return new ListIterator<E>() {\n" +
+"            private int cursor = index;\n" +
+"\n" +
+"            public boolean hasNext() {\n" +
+"                return cursor < " + n + ";\n" +
+"            }\n" +
+"\n" +
+"            public E next() {\n" +
+"                return get(cursor++);\n" +
+"            }\n" +
+"\n" +
+"            public boolean hasPrevious() {\n" +
+"                return cursor > 0;\n" +
+"            }\n" +
+"\n" +
+"            public E previous() {\n" +
+"                return get(--cursor);\n" +
+"            }\n" +
+"\n" +
+"            public int nextIndex() {\n" +
+"                return cursor;\n" +
+"            }\n" +
+"\n" +
+"            public int previousIndex() {\n" +
+"                return cursor - 1;\n" +
+"            }\n" +
+"\n" +
+"            public void remove() {\n" +
+"                throw new UnsupportedOperationException();\n" +
+"            }\n" +
+"\n" +
+"            public void set(E e) {\n" +
+"                throw new UnsupportedOperationException();\n" +
+"            }\n" +
+"\n" +
+"            public void add(E e) {\n" +
+"                throw new UnsupportedOperationException();\n" +
+"            }\n" +
+"        };\n" +
+"    }\n" +
+"\n" +
+"    default List<E> subList(int fromIndex, int toIndex) {\n" +
+"        if (fromIndex < 0 || toIndex > " + n + " || fromIndex > toIndex)\n" +
+"            throw new IndexOutOfBoundsException();\n" +
+"        switch (toIndex - fromIndex) {\n" +
+subList +
+"            default: throw new IndexOutOfBoundsException();\n" +
+"        }\n" +
+"    }\n" +
+"\n" +
+"    default boolean containsAll(Collection<?> c) {\n" +
+"        Objects.requireNonNull(c);\n" +
+"        return c.stream().allMatch(this::contains);\n" +
+"    }\n" +
+"\n" +
+"    default void forEach(Consumer<? super E> action) {\n" +
+"        Objects.requireNonNull(action);\n" +
+join(n, "", i -> "        action.accept(apply(" + i + "));\n") +
+"    }\n" +
+unsupported(
+        "boolean add(E e)",
+        "boolean remove(Object o)",
+        "boolean addAll(Collection<? extends E> c)",
+        "boolean addAll(int index, Collection<? extends E> c)",
+        "boolean removeAll(Collection<?> c)",
+        "boolean retainAll(Collection<?> c)",
+        "void clear()",
+        "E set(int index, E element)",
+        "void add(int index, E element)",
+        "E remove(int index)",
+        "void sort(Comparator<? super E> comparator)",
+        "boolean removeIf(Predicate<? super E> filter)",
+        "void replaceAll(UnaryOperator<E> operator)") +
+"}\n";
+    }
+
+    static String set(int n) {
+        String name = setName(n);
+        IntFunction<String> e = i -> "e" + (i + 1);
+        IntFunction<String> apply = i -> "apply(" + i + ")";
+        return "" +
+"import java.util.Arrays;\n" +
+"import java.util.Collection;\n" +
+"import java.util.Iterator;\n" +
+"import java.util.Objects;\n" +
+"import java.util.Set;\n" +
+"import java.util.Spliterator;\n" +
+"import java.util.function.Consumer;\n" +
+"import java.util.function.IntFunction;\n" +
+"import java.util.function.Predicate;\n" +
+"\n" +
+"import org.paumard.collection.iterator.IndexedIterator;\n" +
+"import org.paumard.collection.spliterator.IndexedSpliterator;\n" +
+"\n" +
+"@FunctionalInterface\n" +
+"public interface " + name + "<E> extends Set<E>, IntFunction<E> {\n" +
+"\n" +
+"    static <E> " + name + "<E> of(" + join(n, ", ", i -> "E " + e.apply(i)) + ") {\n" +
+requireNonNull(n, e) +
+"        if (" + distinct(n, e) + ")\n" +
+"            throw new IllegalArgumentException(\"duplicate elements\");\n" +
+instance(name + "<E>", "E", n, e,
+        join(n, " + ", i -> e.apply(i) + ".hashCode()"),
+        "                if (o instanceof " + name + ") {\n" +
+        "                    " + name + "<?> other = (" + name + "<?>) o;\n" +
+        "                    return (o.getClass() != getClass() || hashCode == o.hashCode()) &&\n" +
+        "                           " + join(n, " &&\n                           ",
+                i -> "other.contains(" + e.apply(i) + ")") + ";\n" +
+        "                }\n",
+        "CollectionContracts.setEquals(this, o)") +
+"    }\n" +
+"\n" +
+"    default int size() {\n" +
+"        return " + n + ";\n" +
+"    }\n" +
+"\n" +
+"    default boolean isEmpty() {\n" +
+"        return false;\n" +
+"    }\n" +
+"\n" +
+"    default boolean contains(Object o) {\n" +
+"        return " + join(n, " || ", i -> apply.apply(i) + ".equals(o)") + ";\n" +
+"    }\n" +
+"\n" +
+"    default Iterator<E> iterator() {\n" +
+"        return new IndexedIterator<>(this, " + n + ");\n" +
+"    }\n" +
+"\n" +
+"    default Spliterator<E> spliterator() {\n" +
+"        return new IndexedSpliterator<>(this, " + n + ",\n" +
+"                Spliterator.DISTINCT | Spliterator.IMMUTABLE | Spliterator.NONNULL |\n" +
+"                Spliterator.SIZED | Spliterator.SUBSIZED);\n" +
+"    }\n" +
+"\n" +
+"    default Object[] toArray() {\n" +
+"        return new Object[] { " + join(n, ", ", apply) + " };\n" +
+"    }\n" +
+"\n" +
+"    default boolean containsAll(Collection<?> c) {\n" +
+"        Objects.requireNonNull(c);\n" +
+"        return c.stream().allMatch(this::contains);\n" +
+"    }\n" +
+"\n" +
+"    default void forEach(Consumer<? super E> action) {\n" +
+"        Objects.requireNonNull(action);\n" +
+join(n, "", i -> "        action.accept(apply(" + i + "));\n") +
+"    }\n" +
+"\n" +
+"    @SuppressWarnings(\"unchecked\")\n" +
+"    default <T> T[] toArray(T[] a) {\n" +
+"        return (T[]) Arrays.copyOf(toArray(), " + n + ", a.getClass());\n" +
+"    }\n" +
+unsupported(
+        "boolean add(E e)",
+        "boolean remove(Object o)",
+        "boolean addAll(Collection<? extends E> c)",
+        "boolean retainAll(Collection<?> c)",
+        "boolean removeAll(Collection<?> c)",
+        "void clear()",
+        "boolean removeIf(Predicate<? super E> filter)") +
+"}\n";
+    }
+
+    static String map(int n) {
+        String name = mapName(n);
+        IntFunction<String> key = i -> "key" + (i + 1);
+        IntFunction<String> value = i -> "value" + (i + 1);
+        IntFunction<String> entry = i -> "entry" + (i + 1);
+        return "" +
+"import java.util.Collection;\n" +
+"import java.util.Map;\n" +
+"import java.util.Objects;\n" +
+"import java.util.Set;\n" +
+"import java.util.function.BiConsumer;\n" +
+"import java.util.function.BiFunction;\n" +
+"import java.util.function.Function;\n" +
+"import java.util.function.IntFunction;\n" +
+"\n" +
+"@FunctionalInterface\n" +
+"public interface " + name + "<K, V> extends Map<K, V>, IntFunction<Map.Entry<K, V>> {\n" +
+"\n" +
+"    static <K, V> " + name + "<K, V> of(" + join(n, ", ", i -> "K " + key.apply(i) + ", V " + value.apply(i)) + ") {\n" +
+join(n, "", i -> "        Objects.requireNonNull(" + key.apply(i) + ");\n" +
+                 "        Objects.requireNonNull(" + value.apply(i) + ");\n") +
+"        if (" + distinct(n, key) + ")\n" +
+"            throw new IllegalArgumentException(\"duplicate keys\");\n" +
+join(n, "", i -> "        KeyValueEntry<K, V> " + entry.apply(i) + " = KeyValueEntry.of(" + key.apply(i) + ", " + value.apply(i) + ");\n") +
+instance(name + "<K, V>", "Map.Entry<K, V>", n, entry,
+        join(n, " + ", i -> entry.apply(i) + ".hashCode()"),
+        "                if (o == this)\n" +
+        "                    return true;\n" +
+        "                if (!(o instanceof Map) || o.getClass() == getClass() && hashCode != o.hashCode())\n" +
+        "                    return false;\n" +
+        "                Map<?, ?> other = (Map<?, ?>) o;\n",
+        "other.size() == " + n + " &&\n" +
+        "                       " + join(n, " &&\n                       ",
+                i -> "MapContracts.hasEntry(other, " + key.apply(i) + ", " + value.apply(i) + ")"),
+        "            private Set<K> keySet;\n" +
+        "            private Collection<V> values;\n" +
+        "            private Set<Map.Entry<K, V>> entrySet;\n" +
+        "\n",
+        cachedView(name, "Set<K>", "keySet") +
+        cachedView(name, "Collection<V>", "values") +
+        cachedView(name, "Set<Map.Entry<K, V>>", "entrySet")) +
+"    }\n" +
+"\n" +
+"    default Set<Entry<K, V>> entrySet() {\n" +
+"        return MapViews.set(this, " + n + ");\n" +
+"    }\n" +
+"\n" +
+"    default V get(Object key) {\n" +
+"        int hash = key.hashCode();\n" +
+join(n, "", i -> "        Map.Entry<K, V> entry" + i + " = apply(" + i + ");\n" +
+                 "        if (KeyValueEntry.hasKey(entry" + i + ", key, hash))\n" +
+                 "            return entry" + i + ".getValue();\n") +
+"        return null;\n" +
+"    }\n" +
+"\n" +
+"    default V getOrDefault(Object key, V defaultValue) {\n" +
+"        V value = get(key);\n" +
+"        return value != null ? value : defaultValue;\n" +
+"    }\n" +
+"\n" +
+"    default int size() {\n" +
+"        return " + n + ";\n" +
+"    }\n" +
+"\n" +
+"    default boolean isEmpty() {\n" +
+"        return false;\n" +
+"    }\n" +
+"\n" +
+"    default boolean containsKey(Object key) {\n" +
+"        Objects.requireNonNull(key);\n" +
+"        return get(key) != null;\n" +
+"    }\n" +
+"\n" +
+"    default boolean containsValue(Object value) {\n" +
+"        Objects.requireNonNull(value);\n" +
+"        return " + join(n, " || ", i -> "apply(" + i + ").getValue().equals(value)") + ";\n" +
+"    }\n" +
+"\n" +
+"    default void forEach(BiConsumer<? super K, ? super V> action) {\n" +
+"        Objects.requireNonNull(action);\n" +
+join(n, "", i -> "        Map.Entry<K, V> entry" + i + " = apply(" + i + ");\n" +
+                 "        action.accept(entry" + i + ".getKey(), entry" + i + ".getValue());\n") +
+"    }\n" +
+"\n" +
+"    default Set<K> keySet() {\n" +
+"        return MapViews.set(i -> apply(i).getKey(), " + n + ");\n" +
+"    }\n" +
+"\n" +
+"    default Collection<V> values() {\n" +
+"        return MapViews.list(i -> apply(i).getValue(), " + n + ");\n" +
+"    }\n" +
+unsupported(
+        "V put(K key, V value)",
+        "V remove(Object key)",
+        "void putAll(Map<? extends K, ? extends V> m)",
+        "void clear()",
+        "void replaceAll(BiFunction<? super K, ? super V, ? extends V> function)",
+        "V putIfAbsent(K key, V value)",
+        "boolean remove(Object key, Object value)",
+        "boolean replace(K key, V oldValue, V newValue)",
+        "V replace(K key, V value)",
+        "V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction)",
+        "V computeIfPresent(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction)",
+        "V compute(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction)",
+        "V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction)") +
+"}\n";
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright (C) 2016 Jos Paumard
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+
+package org.paumard.collection;
+
+/**
+ * Linear searches in arrays of primitive values, as the lookups of the small
+ * collections of this project. This is the scalar version, that compares the
+ * values one by one. On Java 17 and later, the multi-release JAR replaces it
+ * with a version that compares several values at once with the Vector API,
+ * when the {@code jdk.incubator.vector} module is available.
+ * <p>
+ * Doubles are compared as {@code Double.equals()} does: {@code NaN} is equal
+ * to itself, and {@code 0.0} is not equal to {@code -0.0}.
+ */
+public final class ArrayProbes {
+
+    private ArrayProbes() {
+    }
+
+    /**
+     * Tells if the searches use the Vector API.
+     */
+    public static boolean isVectorized() {
+        return false;
+    }
+
+    /**
+     * Returns the index of the first occurrence of the key between from,
+     * inclusive, and to, exclusive, or -1 if there is none.
+     */
+    public static int indexOf(int[] array, int from, int to, int key) {
+        for (int i = from; i < to; i++) {
+            if (array[i] == key)
+                return i;
+        }
+        return -1;
+    }
+
+    // the searches in arrays of longs and doubles have no collection yet, and
+    // are only used by the benchmarks
+    static int indexOf(long[] array, int from, int to, long key) {
+        for (int i = from; i < to; i++) {
+            if (array[i] == key)
+                return i;
+        }
+        return -1;
+    }
+
+    static int indexOf(double[] array, int from, int to, double key) {
+        long bits = Double.doubleToLongBits(key);
+        for (int i = from; i < to; i++) {
+            if (Double.doubleToLongBits(array[i]) == bits)
+                return i;
+        }
+        return -1;
+    }
+}
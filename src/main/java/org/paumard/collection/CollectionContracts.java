@@ -0,0 +1,69 @@
+/*
+ * Copyright (C) 2016 Jos Paumard
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+
+package org.paumard.collection;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The equals() and hashCode() contracts of List and Set, for the collections of this project.
+ */
+public final class CollectionContracts {
+
+    private CollectionContracts() {
+    }
+
+    public static boolean listEquals(List<?> list, Object o) {
+        if (o == list)
+            return true;
+        if (!(o instanceof List))
+            return false;
+        List<?> other = (List<?>) o;
+        if (other.size() != list.size())
+            return false;
+        Iterator<?> iterator = other.iterator();
+        for (Object e : list) {
+            if (!e.equals(iterator.next()))
+                return false;
+        }
+        return true;
+    }
+
+    public static int listHashCode(List<?> list) {
+        int hashCode = 1;
+        for (Object e : list) {
+            hashCode = 31 * hashCode + e.hashCode();
+        }
+        return hashCode;
+    }
+
+    public static boolean setEquals(Set<?> set, Object o) {
+        if (o == set)
+            return true;
+        if (!(o instanceof Set))
+            return false;
+        Set<?> other = (Set<?>) o;
+        try {
+            return other.size() == set.size() && set.containsAll(other);
+        } catch (ClassCastException | NullPointerException e) {
+            return false;
+        }
+    }
+}
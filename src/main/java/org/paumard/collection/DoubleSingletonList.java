@@ -0,0 +1,236 @@
+/*
+ * Copyright (C) 2016 Jos Paumard
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+
+package org.paumard.collection;
+
+import org.paumard.collection.iterator.DoubleIndexedIterator;
+import org.paumard.collection.spliterator.DoubleIndexedSpliterator;
+
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.DoubleConsumer;
+import java.util.function.DoubleSupplier;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+import java.util.stream.DoubleStream;
+import java.util.stream.StreamSupport;
+
+@FunctionalInterface
+public interface DoubleSingletonList extends List<Double>, DoubleSupplier {
+
+    static DoubleSingletonList of(double e) {
+        int hashCode = 31 + Double.hashCode(e);
+        return new DoubleSingletonList() {
+            public double getAsDouble() {
+                return e;
+            }
+
+            public int hashCode() {
+                return hashCode;
+            }
+
+            public boolean equals(Object o) {
+                return o instanceof DoubleSingletonList ?
+                       Double.compare(e, ((DoubleSingletonList) o).getAsDouble()) == 0 :
+                       CollectionContracts.listEquals(this, o);
+            }
+        };
+    }
+
+    default double getDouble(int index) {
+        if (index != 0)
+            throw new IndexOutOfBoundsException();
+        return getAsDouble();
+    }
+
+    default Double get(int index) {
+        return getDouble(index);
+    }
+
+    default int size() {
+        return 1;
+    }
+
+    default boolean isEmpty() {
+        return false;
+    }
+
+    default boolean contains(Object o) {
+        return o instanceof Double && containsDouble((Double) o);
+    }
+
+    default boolean containsDouble(double value) {
+        return Double.compare(getAsDouble(), value) == 0;
+    }
+
+    default PrimitiveIterator.OfDouble iterator() {
+        return new DoubleIndexedIterator(this::getDouble, 1);
+    }
+
+    default Spliterator.OfDouble spliterator() {
+        return new DoubleIndexedSpliterator(this::getDouble, 1,
+                Spliterator.IMMUTABLE | Spliterator.NONNULL | Spliterator.ORDERED |
+                Spliterator.SIZED | Spliterator.SUBSIZED);
+    }
+
+    default DoubleStream doubleStream() {
+        return StreamSupport.doubleStream(spliterator(), false);
+    }
+
+    default Object[] toArray() {
+        return new Object[] { getAsDouble() };
+    }
+
+    @SuppressWarnings("unchecked")
+    default <T> T[] toArray(T[] a) {
+        return (T[]) Arrays.copyOf(toArray(), 1, a.getClass());
+    }
+
+    default double[] toDoubleArray() {
+        return new double[] { getAsDouble() };
+    }
+
+    default int indexOf(Object o) {
+        return contains(o) ? 0 : -1;
+    }
+
+    default int lastIndexOf(Object o) {
+        return indexOf(o);
+    }
+
+    default ListIterator<Double> listIterator() {
+        return listIterator(0);
+    }
+
+    default ListIterator<Double> listIterator(final int index) {
+        return new ListIterator<Double>() {
+            private int cursor = index;
+
+            public boolean hasNext() {
+                return cursor < 1;
+            }
+
+            public Double next() {
+                return get(cursor++);
+            }
+
+            public boolean hasPrevious() {
+                return cursor > 0;
+            }
+
+            public Double previous() {
+                return get(--cursor);
+            }
+
+            public int nextIndex() {
+                return cursor;
+            }
+
+            public int previousIndex() {
+                return cursor - 1;
+            }
+
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+
+            public void set(Double e) {
+                throw new UnsupportedOperationException();
+            }
+
+            public void add(Double e) {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+
+    default List<Double> subList(int fromIndex, int toIndex) {
+        Supplier<List<Double>> supplier = () -> {throw new IndexOutOfBoundsException();};
+        return fromIndex == 0 ?
+                toIndex == 0 ? Collections.emptyList() :
+                toIndex == 1 ? this : supplier.get() : supplier.get();
+    }
+
+    default boolean containsAll(Collection<?> c) {
+        Objects.requireNonNull(c);
+        return c.stream().allMatch(this::contains);
+    }
+
+    default void forEach(Consumer<? super Double> action) {
+        Objects.requireNonNull(action);
+        action.accept(getAsDouble());
+    }
+
+    default void forEachDouble(DoubleConsumer action) {
+        Objects.requireNonNull(action);
+        action.accept(getAsDouble());
+    }
+
+    default boolean add(Double e) {
+        throw new UnsupportedOperationException();
+    }
+
+    default boolean remove(Object o) {
+        throw new UnsupportedOperationException();
+    }
+
+    default boolean addAll(Collection<? extends Double> c) {
+        throw new UnsupportedOperationException();
+    }
+
+    default boolean addAll(int index, Collection<? extends Double> c) {
+        throw new UnsupportedOperationException();
+    }
+
+    default boolean removeAll(Collection<?> c) {
+        throw new UnsupportedOperationException();
+    }
+
+    default boolean retainAll(Collection<?> c) {
+        throw new UnsupportedOperationException();
+    }
+
+    default void clear() {
+        throw new UnsupportedOperationException();
+    }
+
+    default Double set(int index, Double element) {
+        throw new UnsupportedOperationException();
+    }
+
+    default void add(int index, Double element) {
+        throw new UnsupportedOperationException();
+    }
+
+    default Double remove(int index) {
+        throw new UnsupportedOperationException();
+    }
+
+    default void sort(Comparator<? super Double> comparator) {
+        throw new UnsupportedOperationException();
+    }
+
+    default boolean removeIf(Predicate<? super Double> filter) {
+        throw new UnsupportedOperationException();
+    }
+
+    default void replaceAll(UnaryOperator<Double> operator) {
+        throw new UnsupportedOperationException();
+    }
+}
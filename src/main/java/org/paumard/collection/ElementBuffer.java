@@ -0,0 +1,136 @@
+/*
+ * Copyright (C) 2016 Jos Paumard
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+
+package org.paumard.collection;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * The container of the list and set collectors. The first two elements are
+ * kept in fields, so that collecting one or two elements does not allocate
+ * anything else than this buffer. From the third element on, all the
+ * elements are copied in an array, that grows by doubling.
+ * <p>
+ * A distinct buffer drops the elements it already holds: it compares them
+ * one by one up to eight elements, then indexes them in a hash set.
+ */
+final class ElementBuffer<T> {
+
+    private static final int INDEX_THRESHOLD = 8;
+
+    private final boolean distinct;
+    private T first;
+    private T second;
+    private Object[] elements;
+    private Set<T> index;
+    private int size;
+
+    ElementBuffer(boolean distinct) {
+        this.distinct = distinct;
+    }
+
+    void add(T element) {
+        Objects.requireNonNull(element);
+        if (distinct && contains(element))
+            return;
+        if (size == 0) {
+            first = element;
+        } else if (size == 1) {
+            second = element;
+        } else {
+            if (elements == null) {
+                elements = new Object[INDEX_THRESHOLD];
+                elements[0] = first;
+                elements[1] = second;
+                first = second = null;
+            } else if (size == elements.length) {
+                elements = Arrays.copyOf(elements, 2 * size);
+            }
+            elements[size] = element;
+            if (index != null) {
+                index.add(element);
+            } else if (distinct && size == INDEX_THRESHOLD) {
+                index = new HashSet<>();
+                for (int i = 0; i <= size; i++) {
+                    index.add(element(i));
+                }
+            }
+        }
+        size++;
+    }
+
+    /**
+     * Adds the elements of the other buffer after the elements of this one.
+     * An unordered buffer is merged in the larger of the two buffers.
+     */
+    ElementBuffer<T> addAll(ElementBuffer<T> other, boolean ordered) {
+        if (!ordered && other.size > size)
+            return other.addAll(this, false);
+        for (int i = 0; i < other.size; i++) {
+            add(other.element(i));
+        }
+        return this;
+    }
+
+    List<T> toList() {
+        switch (size) {
+            case 0: return Collections.emptyList();
+            case 1: return SingletonList.of(first);
+            case 2: return TwoElementsList.of(first, second);
+            default: return size <= INDEX_THRESHOLD ?
+                            LambdaCollections.listOf(elementArray()) :
+                            SmallCollections.smallList(elementArray());
+        }
+    }
+
+    Set<T> toSet() {
+        switch (size) {
+            case 0: return Collections.emptySet();
+            case 1: return SingletonSet.of(first);
+            case 2: return TwoElementsSet.of(first, second);
+            default: return size <= INDEX_THRESHOLD ?
+                            LambdaCollections.setOf(elementArray()) :
+                            SmallCollections.smallSet(elementArray(), false);
+        }
+    }
+
+    private boolean contains(T element) {
+        if (index != null)
+            return index.contains(element);
+        for (int i = 0; i < size; i++) {
+            if (element.equals(element(i)))
+                return true;
+        }
+        return false;
+    }
+
+    @SuppressWarnings("unchecked")
+    private T element(int i) {
+        return elements != null ? (T) elements[i] : i == 0 ? first : second;
+    }
+
+    @SuppressWarnings("unchecked")
+    private T[] elementArray() {
+        return (T[]) (elements.length == size ? elements : Arrays.copyOf(elements, size));
+    }
+}
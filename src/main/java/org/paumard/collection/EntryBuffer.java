@@ -0,0 +1,158 @@
+/*
+ * Copyright (C) 2016 Jos Paumard
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+
+package org.paumard.collection;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+
+import org.paumard.map.SingleElementMap;
+import org.paumard.map.TwoElementsMap;
+
+/**
+ * The container of the map collectors. The first two entries are kept in
+ * fields, and moved to a {@code HashMap} when a third key is added.
+ */
+final class EntryBuffer<K, V> {
+
+    private K key1;
+    private V value1;
+    private K key2;
+    private V value2;
+    private Map<K, V> map;
+    private int size;
+
+    V get(Object key) {
+        if (map != null)
+            return map.get(key);
+        return size > 0 && key1.equals(key) ? value1 :
+               size > 1 && key2.equals(key) ? value2 :
+               null;
+    }
+
+    void put(K key, V value) {
+        Objects.requireNonNull(key);
+        Objects.requireNonNull(value);
+        if (map != null) {
+            map.put(key, value);
+        } else if (size > 0 && key1.equals(key)) {
+            value1 = value;
+        } else if (size > 1 && key2.equals(key)) {
+            value2 = value;
+        } else if (size == 0) {
+            key1 = key;
+            value1 = value;
+            size = 1;
+        } else if (size == 1) {
+            key2 = key;
+            value2 = value;
+            size = 2;
+        } else {
+            map = new HashMap<>();
+            map.put(key1, value1);
+            map.put(key2, value2);
+            map.put(key, value);
+            key1 = key2 = null;
+            value1 = value2 = null;
+        }
+    }
+
+    V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+        V value = get(key);
+        if (value == null) {
+            value = mappingFunction.apply(key);
+            put(key, value);
+        }
+        return value;
+    }
+
+    V merge(K key, V value, BinaryOperator<V> mergeFunction) {
+        V oldValue = get(key);
+        V newValue = oldValue == null ? value : mergeFunction.apply(oldValue, value);
+        put(key, newValue);
+        return newValue;
+    }
+
+    /**
+     * Throws an {@code IllegalStateException} if the key is already there,
+     * with the message of {@code Collectors.toMap()}.
+     */
+    void putUnique(K key, V value) {
+        Objects.requireNonNull(value);
+        V oldValue = get(key);
+        if (oldValue != null)
+            throw new IllegalStateException(String.format(
+                    "Duplicate key %s (attempted merging values %s and %s)", key, oldValue, value));
+        put(key, value);
+    }
+
+    int size() {
+        return map != null ? map.size() : size;
+    }
+
+    void forEach(BiConsumer<? super K, ? super V> action) {
+        if (map != null) {
+            map.forEach(action);
+        } else {
+            if (size > 0)
+                action.accept(key1, value1);
+            if (size > 1)
+                action.accept(key2, value2);
+        }
+    }
+
+    /**
+     * Merges the smaller of the two buffers in the larger one.
+     */
+    EntryBuffer<K, V> putAll(EntryBuffer<K, V> other, BinaryOperator<V> mergeFunction) {
+        if (other.size() > size())
+            return other.putAll(this, (v1, v2) -> mergeFunction.apply(v2, v1));
+        other.forEach((key, value) -> merge(key, value, mergeFunction));
+        return this;
+    }
+
+    EntryBuffer<K, V> putAllUnique(EntryBuffer<K, V> other) {
+        if (other.size() > size())
+            return other.putAllUnique(this);
+        other.forEach(this::putUnique);
+        return this;
+    }
+
+    /**
+     * Returns a lambda map for one or two keys, and the {@code HashMap} of
+     * this buffer for more keys, the finisher being applied to each value.
+     */
+    @SuppressWarnings("unchecked")
+    <R> Map<K, R> toMap(Function<? super V, ? extends R> finisher) {
+        if (map != null) {
+            Map<K, Object> result = (Map<K, Object>) map;
+            result.replaceAll((key, value) -> finisher.apply((V) value));
+            return (Map<K, R>) result;
+        }
+        switch (size) {
+            case 0: return Collections.emptyMap();
+            case 1: return SingleElementMap.of(key1, finisher.apply(value1));
+            default: return TwoElementsMap.of(key1, finisher.apply(value1), key2, finisher.apply(value2));
+        }
+    }
+}
@@ -0,0 +1,235 @@
+/*
+ * Copyright (C) 2016 Jos Paumard
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+
+package org.paumard.collection;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+
+import org.paumard.collection.iterator.IndexedIterator;
+import org.paumard.collection.spliterator.IndexedSpliterator;
+
+/**
+ * An immutable list of any size, seen as a function from an index to an
+ * element, as {@link TwoElementsList} is. Implementations only have to give
+ * {@code apply()} and {@code size()}.
+ */
+public interface IndexedList<E> extends List<E>, IntFunction<E> {
+
+    default E get(int index) {
+        if (index < 0 || index >= size())
+            throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size());
+        return this.apply(index);
+    }
+
+    default boolean isEmpty() {
+        return size() == 0;
+    }
+
+    default boolean contains(Object o) {
+        return indexOf(o) >= 0;
+    }
+
+    default Iterator<E> iterator() {
+        return new IndexedIterator<>(this, size());
+    }
+
+    default Spliterator<E> spliterator() {
+        return new IndexedSpliterator<>(this, size(),
+                Spliterator.IMMUTABLE | Spliterator.NONNULL | Spliterator.ORDERED);
+    }
+
+    default Object[] toArray() {
+        Object[] array = new Object[size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = apply(i);
+        }
+        return array;
+    }
+
+    @SuppressWarnings("unchecked")
+    default <T> T[] toArray(T[] a) {
+        return (T[]) Arrays.copyOf(toArray(), size(), a.getClass());
+    }
+
+    default int indexOf(Object o) {
+        if (o == null)
+            return -1;
+        int size = size();
+        for (int i = 0; i < size; i++) {
+            if (o.equals(apply(i)))
+                return i;
+        }
+        return -1;
+    }
+
+    default int lastIndexOf(Object o) {
+        if (o == null)
+            return -1;
+        for (int i = size() - 1; i >= 0; i--) {
+            if (o.equals(apply(i)))
+                return i;
+        }
+        return -1;
+    }
+
+    default ListIterator<E> listIterator() {
+        return listIterator(0);
+    }
+
+    default ListIterator<E> listIterator(final int index) {
+        if (index < 0 || index > size())
+            throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size());
+        return new ListIterator<E>() {
+            private int cursor = index;
+
+            public boolean hasNext() {
+                return cursor < size();
+            }
+
+            public E next() {
+                return get(cursor++);
+            }
+
+            public boolean hasPrevious() {
+                return cursor > 0;
+            }
+
+            public E previous() {
+                return get(--cursor);
+            }
+
+            public int nextIndex() {
+                return cursor;
+            }
+
+            public int previousIndex() {
+                return cursor - 1;
+            }
+
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+
+            public void set(E e) {
+                throw new UnsupportedOperationException();
+            }
+
+            public void add(E e) {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+
+    default List<E> subList(int fromIndex, int toIndex) {
+        if (fromIndex < 0 || toIndex > size() || fromIndex > toIndex)
+            throw new IndexOutOfBoundsException("From: " + fromIndex + ", to: " + toIndex + ", size: " + size());
+        return new IndexedList<E>() {
+            public E apply(int i) {
+                return IndexedList.this.apply(fromIndex + i);
+            }
+
+            public int size() {
+                return toIndex - fromIndex;
+            }
+
+            public int hashCode() {
+                return CollectionContracts.listHashCode(this);
+            }
+
+            public boolean equals(Object o) {
+                return CollectionContracts.listEquals(this, o);
+            }
+        };
+    }
+
+    default boolean containsAll(Collection<?> c) {
+        Objects.requireNonNull(c);
+        return c.stream().allMatch(this::contains);
+    }
+
+    default void forEach(Consumer<? super E> action) {
+        Objects.requireNonNull(action);
+        int size = size();
+        for (int i = 0; i < size; i++) {
+            action.accept(apply(i));
+        }
+    }
+
+    default boolean add(E e) {
+        throw new UnsupportedOperationException();
+    }
+
+    default boolean remove(Object o) {
+        throw new UnsupportedOperationException();
+    }
+
+    default boolean addAll(Collection<? extends E> c) {
+        throw new UnsupportedOperationException();
+    }
+
+    default boolean addAll(int index, Collection<? extends E> c) {
+        throw new UnsupportedOperationException();
+    }
+
+    default boolean removeAll(Collection<?> c) {
+        throw new UnsupportedOperationException();
+    }
+
+    default boolean retainAll(Collection<?> c) {
+        throw new UnsupportedOperationException();
+    }
+
+    default void clear() {
+        throw new UnsupportedOperationException();
+    }
+
+    default E set(int index, E element) {
+        throw new UnsupportedOperationException();
+    }
+
+    default void add(int index, E element) {
+        throw new UnsupportedOperationException();
+    }
+
+    default E remove(int index) {
+        throw new UnsupportedOperationException();
+    }
+
+    default void sort(Comparator<? super E> comparator) {
+        throw new UnsupportedOperationException();
+    }
+
+    default boolean removeIf(Predicate<? super E> filter) {
+        throw new UnsupportedOperationException();
+    }
+
+    default void replaceAll(UnaryOperator<E> operator) {
+        throw new UnsupportedOperationException();
+    }
+}
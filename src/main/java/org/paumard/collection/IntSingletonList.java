@@ -0,0 +1,236 @@
+/*
+ * Copyright (C) 2016 Jos Paumard
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+
+package org.paumard.collection;
+
+import org.paumard.collection.iterator.IntIndexedIterator;
+import org.paumard.collection.spliterator.IntIndexedSpliterator;
+
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import java.util.function.IntSupplier;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
+@FunctionalInterface
+public interface IntSingletonList extends List<Integer>, IntSupplier {
+
+    static IntSingletonList of(int e) {
+        int hashCode = 31 + Integer.hashCode(e);
+        return new IntSingletonList() {
+            public int getAsInt() {
+                return e;
+            }
+
+            public int hashCode() {
+                return hashCode;
+            }
+
+            public boolean equals(Object o) {
+                return o instanceof IntSingletonList ?
+                       e == ((IntSingletonList) o).getAsInt() :
+                       CollectionContracts.listEquals(this, o);
+            }
+        };
+    }
+
+    default int getInt(int index) {
+        if (index != 0)
+            throw new IndexOutOfBoundsException();
+        return getAsInt();
+    }
+
+    default Integer get(int index) {
+        return getInt(index);
+    }
+
+    default int size() {
+        return 1;
+    }
+
+    default boolean isEmpty() {
+        return false;
+    }
+
+    default boolean contains(Object o) {
+        return o instanceof Integer && containsInt((Integer) o);
+    }
+
+    default boolean containsInt(int value) {
+        return getAsInt() == value;
+    }
+
+    default PrimitiveIterator.OfInt iterator() {
+        return new IntIndexedIterator(this::getInt, 1);
+    }
+
+    default Spliterator.OfInt spliterator() {
+        return new IntIndexedSpliterator(this::getInt, 1,
+                Spliterator.IMMUTABLE | Spliterator.NONNULL | Spliterator.ORDERED |
+                Spliterator.SIZED | Spliterator.SUBSIZED);
+    }
+
+    default IntStream intStream() {
+        return StreamSupport.intStream(spliterator(), false);
+    }
+
+    default Object[] toArray() {
+        return new Object[] { getAsInt() };
+    }
+
+    @SuppressWarnings("unchecked")
+    default <T> T[] toArray(T[] a) {
+        return (T[]) Arrays.copyOf(toArray(), 1, a.getClass());
+    }
+
+    default int[] toIntArray() {
+        return new int[] { getAsInt() };
+    }
+
+    default int indexOf(Object o) {
+        return contains(o) ? 0 : -1;
+    }
+
+    default int lastIndexOf(Object o) {
+        return indexOf(o);
+    }
+
+    default ListIterator<Integer> listIterator() {
+        return listIterator(0);
+    }
+
+    default ListIterator<Integer> listIterator(final int index) {
+        return new ListIterator<Integer>() {
+            private int cursor = index;
+
+            public boolean hasNext() {
+                return cursor < 1;
+            }
+
+            public Integer next() {
+                return get(cursor++);
+            }
+
+            public boolean hasPrevious() {
+                return cursor > 0;
+            }
+
+            public Integer previous() {
+                return get(--cursor);
+            }
+
+            public int nextIndex() {
+                return cursor;
+            }
+
+            public int previousIndex() {
+                return cursor - 1;
+            }
+
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+
+            public void set(Integer e) {
+                throw new UnsupportedOperationException();
+            }
+
+            public void add(Integer e) {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+
+    default List<Integer> subList(int fromIndex, int toIndex) {
+        Supplier<List<Integer>> supplier = () -> {throw new IndexOutOfBoundsException();};
+        return fromIndex == 0 ?
+                toIndex == 0 ? Collections.emptyList() :
+                toIndex == 1 ? this : supplier.get() : supplier.get();
+    }
+
+    default boolean containsAll(Collection<?> c) {
+        Objects.requireNonNull(c);
+        return c.stream().allMatch(this::contains);
+    }
+
+    default void forEach(Consumer<? super Integer> action) {
+        Objects.requireNonNull(action);
+        action.accept(getAsInt());
+    }
+
+    default void forEachInt(IntConsumer action) {
+        Objects.requireNonNull(action);
+        action.accept(getAsInt());
+    }
+
+    default boolean add(Integer e) {
+        throw new UnsupportedOperationException();
+    }
+
+    default boolean remove(Object o) {
+        throw new UnsupportedOperationException();
+    }
+
+    default boolean addAll(Collection<? extends Integer> c) {
+        throw new UnsupportedOperationException();
+    }
+
+    default boolean addAll(int index, Collection<? extends Integer> c) {
+        throw new UnsupportedOperationException();
+    }
+
+    default boolean removeAll(Collection<?> c) {
+        throw new UnsupportedOperationException();
+    }
+
+    default boolean retainAll(Collection<?> c) {
+        throw new UnsupportedOperationException();
+    }
+
+    default void clear() {
+        throw new UnsupportedOperationException();
+    }
+
+    default Integer set(int index, Integer element) {
+        throw new UnsupportedOperationException();
+    }
+
+    default void add(int index, Integer element) {
+        throw new UnsupportedOperationException();
+    }
+
+    default Integer remove(int index) {
+        throw new UnsupportedOperationException();
+    }
+
+    default void sort(Comparator<? super Integer> comparator) {
+        throw new UnsupportedOperationException();
+    }
+
+    default boolean removeIf(Predicate<? super Integer> filter) {
+        throw new UnsupportedOperationException();
+    }
+
+    default void replaceAll(UnaryOperator<Integer> operator) {
+        throw new UnsupportedOperationException();
+    }
+}
@@ -0,0 +1,256 @@
+/*
+ * Copyright (C) 2016 Jos Paumard
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+
+package org.paumard.collection;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Objects;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import java.util.function.IntUnaryOperator;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
+import org.paumard.collection.iterator.IntIndexedIterator;
+import org.paumard.collection.spliterator.IntIndexedSpliterator;
+
+@FunctionalInterface
+public interface IntTwoElementsList extends List<Integer>, IntUnaryOperator {
+
+    static IntTwoElementsList of(int e1, int e2) {
+        int hashCode = 31 * (31 + Integer.hashCode(e1)) + Integer.hashCode(e2);
+        return new IntTwoElementsList() {
+            public int applyAsInt(int i) {
+                return i == 0 ? e1 : e2;
+            }
+
+            public int hashCode() {
+                return hashCode;
+            }
+
+            public boolean equals(Object o) {
+                if (o instanceof IntTwoElementsList) {
+                    IntTwoElementsList other = (IntTwoElementsList) o;
+                    return e1 == other.getInt(0) && e2 == other.getInt(1);
+                }
+                return CollectionContracts.listEquals(this, o);
+            }
+        };
+    }
+
+    default int getInt(int index) {
+        return this.applyAsInt(index);
+    }
+
+    default Integer get(int index) {
+        return getInt(index);
+    }
+
+    default int size() {
+        return 2;
+    }
+
+    default boolean isEmpty() {
+        return false;
+    }
+
+    default boolean contains(Object o) {
+        return o instanceof Integer && containsInt((Integer) o);
+    }
+
+    default boolean containsInt(int value) {
+        return getInt(0) == value || getInt(1) == value;
+    }
+
+    default PrimitiveIterator.OfInt iterator() {
+        return new IntIndexedIterator(this, 2);
+    }
+
+    default Spliterator.OfInt spliterator() {
+        return new IntIndexedSpliterator(this, 2,
+                Spliterator.IMMUTABLE | Spliterator.NONNULL | Spliterator.ORDERED |
+                Spliterator.SIZED | Spliterator.SUBSIZED);
+    }
+
+    default IntStream intStream() {
+        return StreamSupport.intStream(spliterator(), false);
+    }
+
+    default Object[] toArray() {
+        return new Object[] { getInt(0), getInt(1) };
+    }
+
+    @SuppressWarnings("unchecked")
+    default <T> T[] toArray(T[] a) {
+        return (T[]) Arrays.copyOf(toArray(), 2, a.getClass());
+    }
+
+    default int[] toIntArray() {
+        return new int[] { getInt(0), getInt(1) };
+    }
+
+    default int indexOf(Object o) {
+        return o instanceof Integer ? indexOfInt((Integer) o) : -1;
+    }
+
+    default int indexOfInt(int value) {
+        return getInt(0) == value ? 0 : getInt(1) == value ? 1 : -1;
+    }
+
+    default int lastIndexOf(Object o) {
+        return o instanceof Integer ? lastIndexOfInt((Integer) o) : -1;
+    }
+
+    default int lastIndexOfInt(int value) {
+        return getInt(1) == value ? 1 : getInt(0) == value ? 0 : -1;
+    }
+
+    default ListIterator<Integer> listIterator() {
+        return listIterator(0);
+    }
+
+    default ListIterator<Integer> listIterator(final int index) {
+        return new ListIterator<Integer>() {
+            private int cursor = index;
+
+            public boolean hasNext() {
+                return cursor < 2;
+            }
+
+            public Integer next() {
+                return get(cursor++);
+            }
+
+            public boolean hasPrevious() {
+                return cursor > 0;
+            }
+
+            public Integer previous() {
+                return get(--cursor);
+            }
+
+            public int nextIndex() {
+                return cursor;
+            }
+
+            public int previousIndex() {
+                return cursor - 1;
+            }
+
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+
+            public void set(Integer e) {
+                throw new UnsupportedOperationException();
+            }
+
+            public void add(Integer e) {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+
+    default List<Integer> subList(int fromIndex, int toIndex) {
+        Supplier<List<Integer>> supplier = () -> {throw new IndexOutOfBoundsException();};
+        return fromIndex == 0 && toIndex == 0 ? Collections.emptyList() :
+               fromIndex == 1 && toIndex == 1 ? Collections.emptyList() :
+               fromIndex == 0 && toIndex == 1 ? IntSingletonList.of(getInt(0)) :
+               fromIndex == 1 && toIndex == 2 ? IntSingletonList.of(getInt(1)) :
+               fromIndex == 0 && toIndex == 2 ? this : supplier.get();
+    }
+
+    default boolean containsAll(Collection<?> c) {
+        Objects.requireNonNull(c);
+        return c.stream().allMatch(this::contains);
+    }
+
+    default void forEach(Consumer<? super Integer> action) {
+        Objects.requireNonNull(action);
+        action.accept(getInt(0));
+        action.accept(getInt(1));
+    }
+
+    default void forEachInt(IntConsumer action) {
+        Objects.requireNonNull(action);
+        action.accept(getInt(0));
+        action.accept(getInt(1));
+    }
+
+    default boolean add(Integer e) {
+        throw new UnsupportedOperationException();
+    }
+
+    default boolean remove(Object o) {
+        throw new UnsupportedOperationException();
+    }
+
+    default boolean addAll(Collection<? extends Integer> c) {
+        throw new UnsupportedOperationException();
+    }
+
+    default boolean addAll(int index, Collection<? extends Integer> c) {
+        throw new UnsupportedOperationException();
+    }
+
+    default boolean removeAll(Collection<?> c) {
+        throw new UnsupportedOperationException();
+    }
+
+    default boolean retainAll(Collection<?> c) {
+        throw new UnsupportedOperationException();
+    }
+
+    default void clear() {
+        throw new UnsupportedOperationException();
+    }
+
+    default Integer set(int index, Integer element) {
+        throw new UnsupportedOperationException();
+    }
+
+    default void add(int index, Integer element) {
+        throw new UnsupportedOperationException();
+    }
+
+    default Integer remove(int index) {
+        throw new UnsupportedOperationException();
+    }
+
+    default void sort(Comparator<? super Integer> comparator) {
+        throw new UnsupportedOperationException();
+    }
+
+    default boolean removeIf(Predicate<? super Integer> filter) {
+        throw new UnsupportedOperationException();
+    }
+
+    default void replaceAll(UnaryOperator<Integer> operator) {
+        throw new UnsupportedOperationException();
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright (C) 2016 Jos Paumard
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+
+package org.paumard.collection;
+
+import java.lang.ref.WeakReference;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded cache of canonical instances of the immutable collections of
+ * this project: {@code intern(c)} returns a previously interned collection
+ * of the same class, equal to c, if there is one, and c otherwise.
+ * <p>
+ * The table has a fixed number of slots, each holding a weak reference, so
+ * that a canonical instance can be collected once it is not used anymore. A
+ * collection is looked for in a few slots, starting from its hash code. If
+ * they are all taken, it replaces the first one. Slots are updated with
+ * compare-and-set, without locking: two threads interning equal collections
+ * at the same time may both get their own instance, which is harmless.
+ * <p>
+ * Other collections, that may be mutable, are returned unchanged and are not
+ * counted in the statistics.
+ */
+public final class Interner {
+
+    private static final int PROBES = 4;
+
+    private final AtomicReferenceArray<WeakReference<Object>> table;
+    private final int mask;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    private Interner(int capacity) {
+        int length = Integer.highestOneBit(Math.max(capacity, PROBES) - 1) << 1;
+        this.table = new AtomicReferenceArray<>(length);
+        this.mask = length - 1;
+    }
+
+    /**
+     * Returns an interner that holds at most the given number of collections,
+     * rounded up to the next power of two.
+     */
+    public static Interner withCapacity(int capacity) {
+        if (capacity <= 0 || capacity > 1 << 30)
+            throw new IllegalArgumentException("Capacity: " + capacity);
+        return new Interner(capacity);
+    }
+
+    public <C extends Collection<?>> C intern(C collection) {
+        return internObject(collection);
+    }
+
+    public <M extends Map<?, ?>> M intern(M map) {
+        return internObject(map);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T internObject(T collection) {
+        if (!LambdaCollections.isImmutable(collection))
+            return collection;
+        int h = collection.hashCode();
+        int start = (h ^ (h >>> 16)) & mask;
+        int free = -1;
+        for (int i = 0; i < PROBES; i++) {
+            int index = (start + i) & mask;
+            WeakReference<Object> reference = table.get(index);
+            Object canonical = reference == null ? null : reference.get();
+            if (canonical == null) {
+                if (free < 0)
+                    free = index;
+            } else if (canonical.getClass() == collection.getClass() && canonical.equals(collection)) {
+                hits.increment();
+                return (T) canonical;
+            }
+        }
+        misses.increment();
+        if (free >= 0) {
+            WeakReference<Object> expected = table.get(free);
+            Object canonical = expected == null ? null : expected.get();
+            if (canonical == null)
+                table.compareAndSet(free, expected, new WeakReference<>(collection));
+        } else {
+            table.set(start, new WeakReference<>(collection));
+            evictions.increment();
+        }
+        return collection;
+    }
+
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    public long missCount() {
+        return misses.sum();
+    }
+
+    /**
+     * The number of canonical instances that were replaced while they were
+     * still alive, because all the slots of a new collection were taken.
+     */
+    public long evictionCount() {
+        return evictions.sum();
+    }
+
+    public double hitRate() {
+        long hits = hitCount();
+        long requests = hits + missCount();
+        return requests == 0 ? 0.0 : (double) hits / requests;
+    }
+
+    public int capacity() {
+        return table.length();
+    }
+}
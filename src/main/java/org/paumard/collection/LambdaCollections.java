@@ -0,0 +1,295 @@
+/*
+ * Copyright (C) 2016 Jos Paumard
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+
+package org.paumard.collection;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import org.paumard.map.EightElementsMap;
+import org.paumard.map.FiveElementsMap;
+import org.paumard.map.FourElementsMap;
+import org.paumard.map.HamtMap;
+import org.paumard.map.IntKeySingleElementMap;
+import org.paumard.map.IntKeyTwoElementsMap;
+import org.paumard.map.SevenElementsMap;
+import org.paumard.map.SingleElementMap;
+import org.paumard.map.SixElementsMap;
+import org.paumard.map.SmallMap;
+import org.paumard.map.ThreeElementsMap;
+import org.paumard.map.TwoElementsMap;
+
+/**
+ * Factory methods that choose the smallest representation for a given number
+ * of elements: the fixed-arity lambda collections up to eight elements, then
+ * {@link SmallList}, {@link SmallSet} and {@link SmallMap}.
+ */
+public final class LambdaCollections {
+
+    private LambdaCollections() {
+    }
+
+    @SafeVarargs
+    public static <E> List<E> listOf(E... elements) {
+        switch (elements.length) {
+            case 0: return Collections.emptyList();
+            case 1: return SingletonList.of(elements[0]);
+            case 2: return TwoElementsList.of(elements[0], elements[1]);
+            case 3: return ThreeElementsList.of(elements[0], elements[1], elements[2]);
+            case 4: return FourElementsList.of(elements[0], elements[1], elements[2], elements[3]);
+            case 5: return FiveElementsList.of(elements[0], elements[1], elements[2], elements[3], elements[4]);
+            case 6: return SixElementsList.of(elements[0], elements[1], elements[2], elements[3], elements[4],
+                                              elements[5]);
+            case 7: return SevenElementsList.of(elements[0], elements[1], elements[2], elements[3], elements[4],
+                                                elements[5], elements[6]);
+            case 8: return EightElementsList.of(elements[0], elements[1], elements[2], elements[3], elements[4],
+                                                elements[5], elements[6], elements[7]);
+            default: {
+                Object[] copy = new Object[elements.length];
+                for (int i = 0; i < elements.length; i++) {
+                    copy[i] = elements[i];
+                }
+                return SmallCollections.smallList(copy);
+            }
+        }
+    }
+
+    @SafeVarargs
+    public static <E> Set<E> setOf(E... elements) {
+        switch (elements.length) {
+            case 0: return Collections.emptySet();
+            case 1: return SingletonSet.of(elements[0]);
+            case 2: return TwoElementsSet.of(elements[0], elements[1]);
+            case 3: return ThreeElementsSet.of(elements[0], elements[1], elements[2]);
+            case 4: return FourElementsSet.of(elements[0], elements[1], elements[2], elements[3]);
+            case 5: return FiveElementsSet.of(elements[0], elements[1], elements[2], elements[3], elements[4]);
+            case 6: return SixElementsSet.of(elements[0], elements[1], elements[2], elements[3], elements[4],
+                                             elements[5]);
+            case 7: return SevenElementsSet.of(elements[0], elements[1], elements[2], elements[3], elements[4],
+                                               elements[5], elements[6]);
+            case 8: return EightElementsSet.of(elements[0], elements[1], elements[2], elements[3], elements[4],
+                                               elements[5], elements[6], elements[7]);
+            default: {
+                Object[] copy = new Object[elements.length];
+                for (int i = 0; i < elements.length; i++) {
+                    copy[i] = elements[i];
+                }
+                return SmallCollections.smallSet(copy, true);
+            }
+        }
+    }
+
+    public static <K, V> Map<K, V> mapOf() {
+        return Collections.emptyMap();
+    }
+
+    public static <K, V> Map<K, V> mapOf(K key1, V value1) {
+        return SingleElementMap.of(key1, value1);
+    }
+
+    public static <K, V> Map<K, V> mapOf(K key1, V value1, K key2, V value2) {
+        return TwoElementsMap.of(key1, value1, key2, value2);
+    }
+
+    public static <K, V> Map<K, V> mapOf(K key1, V value1, K key2, V value2, K key3, V value3) {
+        return ThreeElementsMap.of(key1, value1, key2, value2, key3, value3);
+    }
+
+    public static <K, V> Map<K, V> mapOf(K key1, V value1, K key2, V value2, K key3, V value3,
+                                         K key4, V value4) {
+        return FourElementsMap.of(key1, value1, key2, value2, key3, value3, key4, value4);
+    }
+
+    public static <K, V> Map<K, V> mapOf(K key1, V value1, K key2, V value2, K key3, V value3,
+                                         K key4, V value4, K key5, V value5) {
+        return FiveElementsMap.of(key1, value1, key2, value2, key3, value3, key4, value4, key5, value5);
+    }
+
+    public static <K, V> Map<K, V> mapOf(K key1, V value1, K key2, V value2, K key3, V value3,
+                                         K key4, V value4, K key5, V value5, K key6, V value6) {
+        return SixElementsMap.of(key1, value1, key2, value2, key3, value3, key4, value4, key5, value5,
+                                 key6, value6);
+    }
+
+    public static <K, V> Map<K, V> mapOf(K key1, V value1, K key2, V value2, K key3, V value3,
+                                         K key4, V value4, K key5, V value5, K key6, V value6,
+                                         K key7, V value7) {
+        return SevenElementsMap.of(key1, value1, key2, value2, key3, value3, key4, value4, key5, value5,
+                                   key6, value6, key7, value7);
+    }
+
+    public static <K, V> Map<K, V> mapOf(K key1, V value1, K key2, V value2, K key3, V value3,
+                                         K key4, V value4, K key5, V value5, K key6, V value6,
+                                         K key7, V value7, K key8, V value8) {
+        return EightElementsMap.of(key1, value1, key2, value2, key3, value3, key4, value4, key5, value5,
+                                   key6, value6, key7, value7, key8, value8);
+    }
+
+    @SafeVarargs
+    public static <K, V> Map<K, V> mapOfEntries(Map.Entry<? extends K, ? extends V>... entries) {
+        switch (entries.length) {
+            case 0: return Collections.emptyMap();
+            case 1: return SingleElementMap.of(entries[0].getKey(), entries[0].getValue());
+            case 2: return TwoElementsMap.of(entries[0].getKey(), entries[0].getValue(),
+                                             entries[1].getKey(), entries[1].getValue());
+            case 3: return ThreeElementsMap.of(entries[0].getKey(), entries[0].getValue(),
+                                               entries[1].getKey(), entries[1].getValue(),
+                                               entries[2].getKey(), entries[2].getValue());
+            case 4: return FourElementsMap.of(entries[0].getKey(), entries[0].getValue(),
+                                              entries[1].getKey(), entries[1].getValue(),
+                                              entries[2].getKey(), entries[2].getValue(),
+                                              entries[3].getKey(), entries[3].getValue());
+            case 5: return FiveElementsMap.of(entries[0].getKey(), entries[0].getValue(),
+                                              entries[1].getKey(), entries[1].getValue(),
+                                              entries[2].getKey(), entries[2].getValue(),
+                                              entries[3].getKey(), entries[3].getValue(),
+                                              entries[4].getKey(), entries[4].getValue());
+            case 6: return SixElementsMap.of(entries[0].getKey(), entries[0].getValue(),
+                                             entries[1].getKey(), entries[1].getValue(),
+                                             entries[2].getKey(), entries[2].getValue(),
+                                             entries[3].getKey(), entries[3].getValue(),
+                                             entries[4].getKey(), entries[4].getValue(),
+                                             entries[5].getKey(), entries[5].getValue());
+            case 7: return SevenElementsMap.of(entries[0].getKey(), entries[0].getValue(),
+                                               entries[1].getKey(), entries[1].getValue(),
+                                               entries[2].getKey(), entries[2].getValue(),
+                                               entries[3].getKey(), entries[3].getValue(),
+                                               entries[4].getKey(), entries[4].getValue(),
+                                               entries[5].getKey(), entries[5].getValue(),
+                                               entries[6].getKey(), entries[6].getValue());
+            case 8: return EightElementsMap.of(entries[0].getKey(), entries[0].getValue(),
+                                               entries[1].getKey(), entries[1].getValue(),
+                                               entries[2].getKey(), entries[2].getValue(),
+                                               entries[3].getKey(), entries[3].getValue(),
+                                               entries[4].getKey(), entries[4].getValue(),
+                                               entries[5].getKey(), entries[5].getValue(),
+                                               entries[6].getKey(), entries[6].getValue(),
+                                               entries[7].getKey(), entries[7].getValue());
+            default: {
+                Map.Entry<? extends K, ? extends V>[] copy = entryArray(entries.length);
+                for (int i = 0; i < entries.length; i++) {
+                    copy[i] = entries[i];
+                }
+                return SmallMap.ofEntries(copy);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <E> List<E> copyOf(List<? extends E> list) {
+        if (isLambdaList(list))
+            return (List<E>) list;
+        return listOf((E[]) list.toArray());
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <E> Set<E> copyOf(Set<? extends E> set) {
+        if (isLambdaSet(set))
+            return (Set<E>) set;
+        return setOf((E[]) set.toArray());
+    }
+
+    /**
+     * Returns a set if the collection is a set, and a list otherwise.
+     */
+    @SuppressWarnings("unchecked")
+    public static <E> Collection<E> copyOf(Collection<? extends E> collection) {
+        if (collection instanceof Set)
+            return copyOf((Set<? extends E>) collection);
+        if (collection instanceof List)
+            return copyOf((List<? extends E>) collection);
+        return listOf((E[]) collection.toArray());
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <K, V> Map<K, V> copyOf(Map<? extends K, ? extends V> map) {
+        if (isLambdaMap(map))
+            return (Map<K, V>) map;
+        return mapOfEntries(map.entrySet().toArray(LambdaCollections.<K, V>entryArray(0)));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <K, V> Map.Entry<? extends K, ? extends V>[] entryArray(int length) {
+        return (Map.Entry<? extends K, ? extends V>[]) new Map.Entry<?, ?>[length];
+    }
+
+    /**
+     * Returns the interner shared by the whole application, that holds up to
+     * 4096 canonical collections.
+     */
+    public static Interner interned() {
+        return DefaultInterner.INSTANCE;
+    }
+
+    // the default interner is only built if it is used
+    private static final class DefaultInterner {
+
+        private static final Interner INSTANCE = Interner.withCapacity(4096);
+    }
+
+    /**
+     * Returns an estimate of the number of bytes used by the given object and
+     * all the objects it references, on the running JVM, as the sum of the
+     * sizes of these objects as laid out in memory. The objects shared with
+     * other graphs are counted, and so are the elements of a collection.
+     */
+    public static long retainedSize(Object o) {
+        return ObjectSizes.retainedSize(Objects.requireNonNull(o));
+    }
+
+    static boolean isImmutable(Object o) {
+        return o instanceof List ? isLambdaList((List<?>) o) :
+               o instanceof Set ? isLambdaSet((Set<?>) o) :
+               o instanceof Map && isLambdaMap((Map<?, ?>) o);
+    }
+
+    private static boolean isLambdaList(List<?> list) {
+        return list == Collections.emptyList() ||
+               list instanceof SingletonList || list instanceof TwoElementsList ||
+               list instanceof ThreeElementsList || list instanceof FourElementsList ||
+               list instanceof FiveElementsList || list instanceof SixElementsList ||
+               list instanceof SevenElementsList || list instanceof EightElementsList ||
+               list instanceof SmallList || list instanceof PersistentVector ||
+               list instanceof IntSingletonList || list instanceof IntTwoElementsList ||
+               list instanceof LongSingletonList || list instanceof LongTwoElementsList ||
+               list instanceof DoubleSingletonList || list instanceof DoubleTwoElementsList;
+    }
+
+    private static boolean isLambdaSet(Set<?> set) {
+        return set == Collections.emptySet() ||
+               set instanceof SingletonSet || set instanceof TwoElementsSet ||
+               set instanceof ThreeElementsSet || set instanceof FourElementsSet ||
+               set instanceof FiveElementsSet || set instanceof SixElementsSet ||
+               set instanceof SevenElementsSet || set instanceof EightElementsSet ||
+               set instanceof SmallSet;
+    }
+
+    private static boolean isLambdaMap(Map<?, ?> map) {
+        return map == Collections.emptyMap() ||
+               map instanceof SingleElementMap || map instanceof TwoElementsMap ||
+               map instanceof ThreeElementsMap || map instanceof FourElementsMap ||
+               map instanceof FiveElementsMap || map instanceof SixElementsMap ||
+               map instanceof SevenElementsMap || map instanceof EightElementsMap ||
+               map instanceof SmallMap || map instanceof HamtMap ||
+               map instanceof IntKeySingleElementMap || map instanceof IntKeyTwoElementsMap;
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright (C) 2016 Jos Paumard
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+
+package org.paumard.collection;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collector;
+
+/**
+ * Collectors that return the immutable collections of this project, chosen
+ * by the number of elements collected, as {@link LambdaCollections} does.
+ * <p>
+ * The elements are accumulated in a buffer that holds the first two of them
+ * in its fields, so that the collection of a stream of one or two elements
+ * only allocates this buffer and the collection it returns. The combiners
+ * copy the smaller buffer in the larger one when the order does not matter.
+ * A collector does not know the size of the stream it collects, so the
+ * buffer of a larger stream grows by doubling, as an {@code ArrayList}.
+ */
+public final class LambdaCollectors {
+
+    private LambdaCollectors() {
+    }
+
+    public static <T> Collector<T, ?, List<T>> toImmutableList() {
+        return Collector.of(
+                () -> new ElementBuffer<T>(false),
+                ElementBuffer::add,
+                (buffer1, buffer2) -> buffer1.addAll(buffer2, true),
+                ElementBuffer::toList);
+    }
+
+    /**
+     * Duplicate elements are collected once, as with {@code Collectors.toSet()}.
+     */
+    public static <T> Collector<T, ?, Set<T>> toImmutableSet() {
+        return Collector.of(
+                () -> new ElementBuffer<T>(true),
+                ElementBuffer::add,
+                (buffer1, buffer2) -> buffer1.addAll(buffer2, false),
+                ElementBuffer::toSet,
+                Collector.Characteristics.UNORDERED);
+    }
+
+    /**
+     * Throws an {@code IllegalStateException} if two elements are mapped to
+     * the same key, as {@code Collectors.toMap()} does, with the same message.
+     */
+    public static <T, K, V> Collector<T, ?, Map<K, V>> toImmutableMap(
+            Function<? super T, ? extends K> keyMapper,
+            Function<? super T, ? extends V> valueMapper) {
+        return Collector.of(
+                EntryBuffer<K, V>::new,
+                (buffer, element) -> buffer.putUnique(keyMapper.apply(element), valueMapper.apply(element)),
+                EntryBuffer::putAllUnique,
+                LambdaCollectors::toMap);
+    }
+
+    public static <T, K, V> Collector<T, ?, Map<K, V>> toImmutableMap(
+            Function<? super T, ? extends K> keyMapper,
+            Function<? super T, ? extends V> valueMapper,
+            BinaryOperator<V> mergeFunction) {
+        return Collector.of(
+                EntryBuffer<K, V>::new,
+                (buffer, element) -> buffer.merge(keyMapper.apply(element), valueMapper.apply(element), mergeFunction),
+                (buffer1, buffer2) -> buffer1.putAll(buffer2, mergeFunction),
+                LambdaCollectors::toMap);
+    }
+
+    private static <K, V> Map<K, V> toMap(EntryBuffer<K, V> buffer) {
+        return buffer.size() > 2 ?
+               LambdaCollections.copyOf(buffer.toMap(Function.identity())) :
+               buffer.toMap(Function.identity());
+    }
+
+    public static <T, K> Collector<T, ?, Map<K, List<T>>> groupingBySmall(
+            Function<? super T, ? extends K> classifier) {
+        return groupingBySmall(classifier, toImmutableList());
+    }
+
+    /**
+     * Groups the elements as {@code Collectors.groupingBy()} does, in a map
+     * that is a {@code SingleElementMap} or a {@code TwoElementsMap} if the
+     * elements fall in one or two groups, and a {@code HashMap} otherwise.
+     * The groups are accumulated in the fields of the container while there
+     * are at most two of them, then moved to the {@code HashMap}.
+     */
+    public static <T, K, A, D> Collector<T, ?, Map<K, D>> groupingBySmall(
+            Function<? super T, ? extends K> classifier,
+            Collector<? super T, A, D> downstream) {
+        Supplier<A> supplier = downstream.supplier();
+        BiConsumer<A, ? super T> accumulator = downstream.accumulator();
+        BinaryOperator<A> combiner = downstream.combiner();
+        Function<A, D> finisher = downstream.finisher();
+        return Collector.of(
+                EntryBuffer<K, A>::new,
+                (buffer, element) -> {
+                    K key = Objects.requireNonNull(classifier.apply(element), "element cannot be mapped to a null key");
+                    accumulator.accept(buffer.computeIfAbsent(key, k -> supplier.get()), element);
+                },
+                (buffer1, buffer2) -> buffer1.putAll(buffer2, combiner),
+                buffer -> buffer.toMap(finisher));
+    }
+}
@@ -0,0 +1,236 @@
+/*
+ * Copyright (C) 2016 Jos Paumard
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+
+package org.paumard.collection;
+
+import org.paumard.collection.iterator.LongIndexedIterator;
+import org.paumard.collection.spliterator.LongIndexedSpliterator;
+
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+import java.util.stream.LongStream;
+import java.util.stream.StreamSupport;
+
+@FunctionalInterface
+public interface LongSingletonList extends List<Long>, LongSupplier {
+
+    static LongSingletonList of(long e) {
+        int hashCode = 31 + Long.hashCode(e);
+        return new LongSingletonList() {
+            public long getAsLong() {
+                return e;
+            }
+
+            public int hashCode() {
+                return hashCode;
+            }
+
+            public boolean equals(Object o) {
+                return o instanceof LongSingletonList ?
+                       e == ((LongSingletonList) o).getAsLong() :
+                       CollectionContracts.listEquals(this, o);
+            }
+        };
+    }
+
+    default long getLong(int index) {
+        if (index != 0)
+            throw new IndexOutOfBoundsException();
+        return getAsLong();
+    }
+
+    default Long get(int index) {
+        return getLong(index);
+    }
+
+    default int size() {
+        return 1;
+    }
+
+    default boolean isEmpty() {
+        return false;
+    }
+
+    default boolean contains(Object o) {
+        return o instanceof Long && containsLong((Long) o);
+    }
+
+    default boolean containsLong(long value) {
+        return getAsLong() == value;
+    }
+
+    default PrimitiveIterator.OfLong iterator() {
+        return new LongIndexedIterator(this::getLong, 1);
+    }
+
+    default Spliterator.OfLong spliterator() {
+        return new LongIndexedSpliterator(this::getLong, 1,
+                Spliterator.IMMUTABLE | Spliterator.NONNULL | Spliterator.ORDERED |
+                Spliterator.SIZED | Spliterator.SUBSIZED);
+    }
+
+    default LongStream longStream() {
+        return StreamSupport.longStream(spliterator(), false);
+    }
+
+    default Object[] toArray() {
+        return new Object[] { getAsLong() };
+    }
+
+    @SuppressWarnings("unchecked")
+    default <T> T[] toArray(T[] a) {
+        return (T[]) Arrays.copyOf(toArray(), 1, a.getClass());
+    }
+
+    default long[] toLongArray() {
+        return new long[] { getAsLong() };
+    }
+
+    default int indexOf(Object o) {
+        return contains(o) ? 0 : -1;
+    }
+
+    default int lastIndexOf(Object o) {
+        return indexOf(o);
+    }
+
+    default ListIterator<Long> listIterator() {
+        return listIterator(0);
+    }
+
+    default ListIterator<Long> listIterator(final int index) {
+        return new ListIterator<Long>() {
+            private int cursor = index;
+
+            public boolean hasNext() {
+                return cursor < 1;
+            }
+
+            public Long next() {
+                return get(cursor++);
+            }
+
+            public boolean hasPrevious() {
+                return cursor > 0;
+            }
+
+            public Long previous() {
+                return get(--cursor);
+            }
+
+            public int nextIndex() {
+                return cursor;
+            }
+
+            public int previousIndex() {
+                return cursor - 1;
+            }
+
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+
+            public void set(Long e) {
+                throw new UnsupportedOperationException();
+            }
+
+            public void add(Long e) {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+
+    default List<Long> subList(int fromIndex, int toIndex) {
+        Supplier<List<Long>> supplier = () -> {throw new IndexOutOfBoundsException();};
+        return fromIndex == 0 ?
+                toIndex == 0 ? Collections.emptyList() :
+                toIndex == 1 ? this : supplier.get() : supplier.get();
+    }
+
+    default boolean containsAll(Collection<?> c) {
+        Objects.requireNonNull(c);
+        return c.stream().allMatch(this::contains);
+    }
+
+    default void forEach(Consumer<? super Long> action) {
+        Objects.requireNonNull(action);
+        action.accept(getAsLong());
+    }
+
+    default void forEachLong(LongConsumer action) {
+        Objects.requireNonNull(action);
+        action.accept(getAsLong());
+    }
+
+    default boolean add(Long e) {
+        throw new UnsupportedOperationException();
+    }
+
+    default boolean remove(Object o) {
+        throw new UnsupportedOperationException();
+    }
+
+    default boolean addAll(Collection<? extends Long> c) {
+        throw new UnsupportedOperationException();
+    }
+
+    default boolean addAll(int index, Collection<? extends Long> c) {
+        throw new UnsupportedOperationException();
+    }
+
+    default boolean removeAll(Collection<?> c) {
+        throw new UnsupportedOperationException();
+    }
+
+    default boolean retainAll(Collection<?> c) {
+        throw new UnsupportedOperationException();
+    }
+
+    default void clear() {
+        throw new UnsupportedOperationException();
+    }
+
+    default Long set(int index, Long element) {
+        throw new UnsupportedOperationException();
+    }
+
+    default void add(int index, Long element) {
+        throw new UnsupportedOperationException();
+    }
+
+    default Long remove(int index) {
+        throw new UnsupportedOperationException();
+    }
+
+    default void sort(Comparator<? super Long> comparator) {
+        throw new UnsupportedOperationException();
+    }
+
+    default boolean removeIf(Predicate<? super Long> filter) {
+        throw new UnsupportedOperationException();
+    }
+
+    default void replaceAll(UnaryOperator<Long> operator) {
+        throw new UnsupportedOperationException();
+    }
+}
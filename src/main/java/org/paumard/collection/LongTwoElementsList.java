@@ -0,0 +1,256 @@
+/*
+ * Copyright (C) 2016 Jos Paumard
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+
+package org.paumard.collection;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Objects;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+import java.util.function.IntToLongFunction;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+import java.util.stream.LongStream;
+import java.util.stream.StreamSupport;
+
+import org.paumard.collection.iterator.LongIndexedIterator;
+import org.paumard.collection.spliterator.LongIndexedSpliterator;
+
+@FunctionalInterface
+public interface LongTwoElementsList extends List<Long>, IntToLongFunction {
+
+    static LongTwoElementsList of(long e1, long e2) {
+        int hashCode = 31 * (31 + Long.hashCode(e1)) + Long.hashCode(e2);
+        return new LongTwoElementsList() {
+            public long applyAsLong(int i) {
+                return i == 0 ? e1 : e2;
+            }
+
+            public int hashCode() {
+                return hashCode;
+            }
+
+            public boolean equals(Object o) {
+                if (o instanceof LongTwoElementsList) {
+                    LongTwoElementsList other = (LongTwoElementsList) o;
+                    return e1 == other.getLong(0) && e2 == other.getLong(1);
+                }
+                return CollectionContracts.listEquals(this, o);
+            }
+        };
+    }
+
+    default long getLong(int index) {
+        return this.applyAsLong(index);
+    }
+
+    default Long get(int index) {
+        return getLong(index);
+    }
+
+    default int size() {
+        return 2;
+    }
+
+    default boolean isEmpty() {
+        return false;
+    }
+
+    default boolean contains(Object o) {
+        return o instanceof Long && containsLong((Long) o);
+    }
+
+    default boolean containsLong(long value) {
+        return getLong(0) == value || getLong(1) == value;
+    }
+
+    default PrimitiveIterator.OfLong iterator() {
+        return new LongIndexedIterator(this, 2);
+    }
+
+    default Spliterator.OfLong spliterator() {
+        return new LongIndexedSpliterator(this, 2,
+                Spliterator.IMMUTABLE | Spliterator.NONNULL | Spliterator.ORDERED |
+                Spliterator.SIZED | Spliterator.SUBSIZED);
+    }
+
+    default LongStream longStream() {
+        return StreamSupport.longStream(spliterator(), false);
+    }
+
+    default Object[] toArray() {
+        return new Object[] { getLong(0), getLong(1) };
+    }
+
+    @SuppressWarnings("unchecked")
+    default <T> T[] toArray(T[] a) {
+        return (T[]) Arrays.copyOf(toArray(), 2, a.getClass());
+    }
+
+    default long[] toLongArray() {
+        return new long[] { getLong(0), getLong(1) };
+    }
+
+    default int indexOf(Object o) {
+        return o instanceof Long ? indexOfLong((Long) o) : -1;
+    }
+
+    default int indexOfLong(long value) {
+        return getLong(0) == value ? 0 : getLong(1) == value ? 1 : -1;
+    }
+
+    default int lastIndexOf(Object o) {
+        return o instanceof Long ? lastIndexOfLong((Long) o) : -1;
+    }
+
+    default int lastIndexOfLong(long value) {
+        return getLong(1) == value ? 1 : getLong(0) == value ? 0 : -1;
+    }
+
+    default ListIterator<Long> listIterator() {
+        return listIterator(0);
+    }
+
+    default ListIterator<Long> listIterator(final int index) {
+        return new ListIterator<Long>() {
+            private int cursor = index;
+
+            public boolean hasNext() {
+                return cursor < 2;
+            }
+
+            public Long next() {
+                return get(cursor++);
+            }
+
+            public boolean hasPrevious() {
+                return cursor > 0;
+            }
+
+            public Long previous() {
+                return get(--cursor);
+            }
+
+            public int nextIndex() {
+                return cursor;
+            }
+
+            public int previousIndex() {
+                return cursor - 1;
+            }
+
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+
+            public void set(Long e) {
+                throw new UnsupportedOperationException();
+            }
+
+            public void add(Long e) {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+
+    default List<Long> subList(int fromIndex, int toIndex) {
+        Supplier<List<Long>> supplier = () -> {throw new IndexOutOfBoundsException();};
+        return fromIndex == 0 && toIndex == 0 ? Collections.emptyList() :
+               fromIndex == 1 && toIndex == 1 ? Collections.emptyList() :
+               fromIndex == 0 && toIndex == 1 ? LongSingletonList.of(getLong(0)) :
+               fromIndex == 1 && toIndex == 2 ? LongSingletonList.of(getLong(1)) :
+               fromIndex == 0 && toIndex == 2 ? this : supplier.get();
+    }
+
+    default boolean containsAll(Collection<?> c) {
+        Objects.requireNonNull(c);
+        return c.stream().allMatch(this::contains);
+    }
+
+    default void forEach(Consumer<? super Long> action) {
+        Objects.requireNonNull(action);
+        action.accept(getLong(0));
+        action.accept(getLong(1));
+    }
+
+    default void forEachLong(LongConsumer action) {
+        Objects.requireNonNull(action);
+        action.accept(getLong(0));
+        action.accept(getLong(1));
+    }
+
+    default boolean add(Long e) {
+        throw new UnsupportedOperationException();
+    }
+
+    default boolean remove(Object o) {
+        throw new UnsupportedOperationException();
+    }
+
+    default boolean addAll(Collection<? extends Long> c) {
+        throw new UnsupportedOperationException();
+    }
+
+    default boolean addAll(int index, Collection<? extends Long> c) {
+        throw new UnsupportedOperationException();
+    }
+
+    default boolean removeAll(Collection<?> c) {
+        throw new UnsupportedOperationException();
+    }
+
+    default boolean retainAll(Collection<?> c) {
+        throw new UnsupportedOperationException();
+    }
+
+    default void clear() {
+        throw new UnsupportedOperationException();
+    }
+
+    default Long set(int index, Long element) {
+        throw new UnsupportedOperationException();
+    }
+
+    default void add(int index, Long element) {
+        throw new UnsupportedOperationException();
+    }
+
+    default Long remove(int index) {
+        throw new UnsupportedOperationException();
+    }
+
+    default void sort(Comparator<? super Long> comparator) {
+        throw new UnsupportedOperationException();
+    }
+
+    default boolean removeIf(Predicate<? super Long> filter) {
+        throw new UnsupportedOperationException();
+    }
+
+    default void replaceAll(UnaryOperator<Long> operator) {
+        throw new UnsupportedOperationException();
+    }
+}
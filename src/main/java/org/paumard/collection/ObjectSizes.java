@@ -0,0 +1,220 @@
+/*
+ * Copyright (C) 2016 Jos Paumard
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+
+package org.paumard.collection;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Estimates the number of bytes of an object graph on the running JVM. The
+ * layout of the objects is read with {@code Unsafe}: the offsets of the
+ * fields give the size of an instance, and the base offset and scale of the
+ * arrays the size of an array. The classes that {@code Unsafe} cannot read,
+ * as the classes of lambda expressions, are measured by adding the sizes of
+ * their fields to the size of an object header. {@code Unsafe} is looked up
+ * reflectively, so that this class does not link against it.
+ */
+final class ObjectSizes {
+
+    private static final Object UNSAFE = unsafe();
+    private static final MethodHandle ARRAY_BASE_OFFSET = unsafeMethod("arrayBaseOffset", int.class, Class.class);
+    private static final MethodHandle ARRAY_INDEX_SCALE = unsafeMethod("arrayIndexScale", int.class, Class.class);
+    private static final MethodHandle OBJECT_FIELD_OFFSET = unsafeMethod("objectFieldOffset", long.class, Field.class);
+    private static final MethodHandle GET_OBJECT = unsafeMethod("getObject", Object.class, Object.class, long.class);
+
+    private static final int REFERENCE_SIZE = ARRAY_INDEX_SCALE != null ? arrayIndexScale(Object[].class) : 4;
+    private static final int HEADER_SIZE = ARRAY_BASE_OFFSET != null ? arrayBaseOffset(Object[].class) - 4 : 12;
+    private static final int ALIGNMENT = 8;
+
+    private static final Map<Class<?>, ClassLayout> LAYOUTS = new ConcurrentHashMap<>();
+
+    private ObjectSizes() {
+    }
+
+    static long retainedSize(Object root) {
+        Map<Object, Boolean> visited = new IdentityHashMap<>();
+        Deque<Object> toVisit = new ArrayDeque<>();
+        toVisit.push(root);
+        long size = 0L;
+        while (!toVisit.isEmpty()) {
+            Object o = toVisit.pop();
+            if (o instanceof Class || visited.put(o, Boolean.TRUE) != null)
+                continue;
+            Class<?> type = o.getClass();
+            if (type.isArray()) {
+                int length = Array.getLength(o);
+                size += align(arrayBaseOffset(type) + (long) arrayIndexScale(type) * length);
+                if (!type.getComponentType().isPrimitive()) {
+                    for (Object element : (Object[]) o) {
+                        if (element != null)
+                            toVisit.push(element);
+                    }
+                }
+            } else {
+                ClassLayout layout = LAYOUTS.computeIfAbsent(type, ClassLayout::new);
+                size += layout.size;
+                for (Field field : layout.references) {
+                    Object value = read(field, o);
+                    if (value != null)
+                        toVisit.push(value);
+                }
+            }
+        }
+        return size;
+    }
+
+    private static long align(long size) {
+        return (size + ALIGNMENT - 1) & -ALIGNMENT;
+    }
+
+    private static int arrayBaseOffset(Class<?> type) {
+        if (ARRAY_BASE_OFFSET != null) {
+            try {
+                return (int) ARRAY_BASE_OFFSET.invokeExact(type);
+            } catch (Throwable e) {
+                // fall back on the default layout
+            }
+        }
+        return HEADER_SIZE + 4;
+    }
+
+    private static int arrayIndexScale(Class<?> type) {
+        if (ARRAY_INDEX_SCALE != null) {
+            try {
+                return (int) ARRAY_INDEX_SCALE.invokeExact(type);
+            } catch (Throwable e) {
+                // fall back on the default layout
+            }
+        }
+        return fieldSize(type.getComponentType());
+    }
+
+    // the offset of a field, or -1 if it cannot be read
+    private static long objectFieldOffset(Field field) {
+        if (OBJECT_FIELD_OFFSET != null) {
+            try {
+                return (long) OBJECT_FIELD_OFFSET.invokeExact(field);
+            } catch (Throwable e) {
+                // not readable, as the fields of hidden classes
+            }
+        }
+        return -1L;
+    }
+
+    private static int fieldSize(Class<?> type) {
+        if (type == long.class || type == double.class)
+            return 8;
+        if (type == int.class || type == float.class)
+            return 4;
+        if (type == short.class || type == char.class)
+            return 2;
+        if (type == byte.class || type == boolean.class)
+            return 1;
+        return REFERENCE_SIZE;
+    }
+
+    private static Object read(Field field, Object o) {
+        try {
+            return field.get(o);
+        } catch (IllegalAccessException e) {
+            long offset = objectFieldOffset(field);
+            if (offset < 0L || GET_OBJECT == null)
+                return null;
+            try {
+                return (Object) GET_OBJECT.invokeExact(o, offset);
+            } catch (Throwable t) {
+                return null;
+            }
+        }
+    }
+
+    private static Object unsafe() {
+        try {
+            Field field = Class.forName("sun.misc.Unsafe").getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            return field.get(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    // a method of Unsafe bound to its instance, or null if it is not there
+    private static MethodHandle unsafeMethod(String name, Class<?> returnType, Class<?>... parameterTypes) {
+        if (UNSAFE == null)
+            return null;
+        try {
+            return MethodHandles.lookup()
+                    .findVirtual(UNSAFE.getClass(), name, MethodType.methodType(returnType, parameterTypes))
+                    .bindTo(UNSAFE);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    // the size of the instances of a class, and its reference fields
+    private static final class ClassLayout {
+
+        private final long size;
+        private final List<Field> references = new ArrayList<>();
+
+        private ClassLayout(Class<?> type) {
+            long end = HEADER_SIZE;
+            long sum = HEADER_SIZE;
+            boolean offsets = OBJECT_FIELD_OFFSET != null;
+            for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+                for (Field field : c.getDeclaredFields()) {
+                    if (Modifier.isStatic(field.getModifiers()))
+                        continue;
+                    sum += fieldSize(field.getType());
+                    if (offsets) {
+                        long offset = objectFieldOffset(field);
+                        if (offset < 0L)
+                            offsets = false;
+                        else
+                            end = Math.max(end, offset + fieldSize(field.getType()));
+                    }
+                    if (!field.getType().isPrimitive()) {
+                        makeAccessible(field);
+                        references.add(field);
+                    }
+                }
+            }
+            this.size = align(offsets ? end : sum);
+        }
+
+        private static void makeAccessible(Field field) {
+            try {
+                field.setAccessible(true);
+            } catch (RuntimeException e) {
+                // not opened to this module: read with Unsafe
+            }
+        }
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright (C) 2016 Jos Paumard
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+
+package org.paumard.collection;
+
+import java.util.List;
+
+/**
+ * An immutable list that can return modified copies of itself. The copies
+ * share as much as they can with the list they are built from, and may be of
+ * another type: adding an element to a {@link SingletonList} gives a
+ * {@link TwoElementsList}, and adding one to a {@code TwoElementsList} gives
+ * a {@link PersistentVector}.
+ */
+public interface PersistentList<E> extends List<E> {
+
+    /**
+     * Returns a list with the given element added at the end of this list.
+     */
+    PersistentList<E> with(E e);
+
+    /**
+     * Returns a list where the element at the given index is replaced by the
+     * given element.
+     */
+    PersistentList<E> withIndex(int index, E e);
+
+    /**
+     * Returns a list without the element at the given index.
+     */
+    PersistentList<E> without(int index);
+}
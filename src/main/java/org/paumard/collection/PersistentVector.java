@@ -0,0 +1,285 @@
+/*
+ * Copyright (C) 2016 Jos Paumard
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+
+package org.paumard.collection;
+
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+import org.paumard.serialization.SerializationProxy;
+
+/**
+ * A persistent list of any size, stored in a trie of arrays of 32 elements.
+ * <p>
+ * The last elements are kept out of the trie, in a tail array of at most 32
+ * elements: adding an element copies the tail only, and a full tail is added
+ * to the trie as a new leaf, copying the path from the root to this leaf. So
+ * {@code with()} runs in constant amortized time, and {@code withIndex()}
+ * copies one path of the trie, that is at most seven arrays of 32 elements.
+ * Two versions of a list share all the arrays they have not modified.
+ * <p>
+ * Removing the last element is as cheap as adding one. Removing another
+ * element shifts all the elements that follow it, and rebuilds the list.
+ * <p>
+ * A vector is serialized by a {@link SerializationProxy}, as its elements, and
+ * is rebuilt with {@link #copyOf(Collection)}: the trie is never read from a
+ * stream.
+ */
+public final class PersistentVector<E> implements PersistentList<E>, IndexedList<E>, Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final int BITS = 5;
+    private static final int WIDTH = 1 << BITS;
+    private static final int MASK = WIDTH - 1;
+
+    private static final Object[] EMPTY_NODE = new Object[WIDTH];
+    private static final Object[] EMPTY_TAIL = new Object[0];
+    private static final PersistentVector<?> EMPTY = new PersistentVector<>(0, BITS, EMPTY_NODE, EMPTY_TAIL);
+
+    private final int size;
+    private final int shift;
+    private final Object[] root;
+    private final Object[] tail;
+    private int hashCode;
+
+    private PersistentVector(int size, int shift, Object[] root, Object[] tail) {
+        this.size = size;
+        this.shift = shift;
+        this.root = root;
+        this.tail = tail;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <E> PersistentVector<E> empty() {
+        return (PersistentVector<E>) EMPTY;
+    }
+
+    @SafeVarargs
+    @SuppressWarnings("unchecked")
+    public static <E> PersistentVector<E> of(E... elements) {
+        Object[] copy = new Object[elements.length];
+        for (int i = 0; i < elements.length; i++) {
+            copy[i] = elements[i];
+        }
+        return copyOf((List<E>) Arrays.asList(copy));
+    }
+
+    /**
+     * Builds the trie leaf by leaf, so that each element is copied once, and
+     * each path once per leaf. The last leaf is kept as the tail.
+     */
+    public static <E> PersistentVector<E> copyOf(Collection<? extends E> collection) {
+        PersistentVector<E> trie = empty();
+        Object[] leaf = new Object[WIDTH];
+        int length = 0;
+        for (E e : collection) {
+            if (length == WIDTH) {
+                trie = withLeaf(trie.size, trie.shift, trie.root, leaf);
+                leaf = new Object[WIDTH];
+                length = 0;
+            }
+            leaf[length++] = Objects.requireNonNull(e);
+        }
+        return new PersistentVector<>(trie.size + length, trie.shift, trie.root,
+                length == 0 ? EMPTY_TAIL : Arrays.copyOf(leaf, length));
+    }
+
+    public int size() {
+        return size;
+    }
+
+    @SuppressWarnings("unchecked")
+    public E apply(int index) {
+        return (E) leafFor(index)[index & MASK];
+    }
+
+    public void forEach(Consumer<? super E> action) {
+        Objects.requireNonNull(action);
+        for (int i = 0; i < size; i += WIDTH) {
+            Object[] leaf = leafFor(i);
+            int length = Math.min(WIDTH, size - i);
+            for (int j = 0; j < length; j++) {
+                @SuppressWarnings("unchecked")
+                E e = (E) leaf[j];
+                action.accept(e);
+            }
+        }
+    }
+
+    public PersistentVector<E> with(E e) {
+        Objects.requireNonNull(e);
+        if (size - tailOffset() < WIDTH) {
+            Object[] newTail = Arrays.copyOf(tail, tail.length + 1);
+            newTail[tail.length] = e;
+            return new PersistentVector<>(size + 1, shift, root, newTail);
+        }
+        PersistentVector<E> trie = withLeaf(size - WIDTH, shift, root, tail);
+        return new PersistentVector<>(size + 1, trie.shift, trie.root, new Object[] { e });
+    }
+
+    public PersistentVector<E> withIndex(int index, E e) {
+        Objects.requireNonNull(e);
+        checkIndex(index);
+        if (index >= tailOffset()) {
+            Object[] newTail = tail.clone();
+            newTail[index & MASK] = e;
+            return new PersistentVector<>(size, shift, root, newTail);
+        }
+        return new PersistentVector<>(size, shift, withIndex(shift, root, index, e), tail);
+    }
+
+    /**
+     * A vector of three elements becomes a {@link TwoElementsList} again.
+     */
+    public PersistentList<E> without(int index) {
+        checkIndex(index);
+        if (size == 3) {
+            return index == 0 ? TwoElementsList.of(apply(1), apply(2)) :
+                   index == 1 ? TwoElementsList.of(apply(0), apply(2)) :
+                                TwoElementsList.of(apply(0), apply(1));
+        }
+        if (index < size - 1) {
+            List<E> elements = new ArrayList<>(this);
+            elements.remove(index);
+            return copyOf(elements);
+        }
+        if (size == 1) {
+            return empty();
+        }
+        if (tail.length > 1) {
+            return new PersistentVector<>(size - 1, shift, root, Arrays.copyOf(tail, tail.length - 1));
+        }
+        Object[] newTail = leafFor(size - 2);
+        Object[] newRoot = withoutLastLeaf(shift, root);
+        int newShift = shift;
+        if (newRoot == null) {
+            newRoot = EMPTY_NODE;
+        } else if (shift > BITS && newRoot[1] == null) {
+            newRoot = (Object[]) newRoot[0];
+            newShift -= BITS;
+        }
+        return new PersistentVector<>(size - 1, newShift, newRoot, newTail);
+    }
+
+    public int hashCode() {
+        int h = hashCode;
+        if (h == 0) {
+            hashCode = h = CollectionContracts.listHashCode(this);
+        }
+        return h;
+    }
+
+    public boolean equals(Object o) {
+        return CollectionContracts.listEquals(this, o);
+    }
+
+    private Object writeReplace() {
+        return new SerializationProxy(this);
+    }
+
+    private void readObject(ObjectInputStream in) throws InvalidObjectException {
+        throw new InvalidObjectException("Serialization proxy required");
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size)
+            throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+    }
+
+    // index of the first element of the tail
+    private int tailOffset() {
+        return size < WIDTH ? 0 : ((size - 1) >>> BITS) << BITS;
+    }
+
+    private Object[] leafFor(int index) {
+        if (index >= tailOffset())
+            return tail;
+        Object[] node = root;
+        for (int level = shift; level > 0; level -= BITS) {
+            node = (Object[]) node[(index >>> level) & MASK];
+        }
+        return node;
+    }
+
+    // adds a full leaf after the count elements of the trie, leaving the tail empty
+    private static <E> PersistentVector<E> withLeaf(int count, int shift, Object[] root, Object[] leaf) {
+        if ((count >>> BITS) >= (1 << shift)) {
+            Object[] newRoot = new Object[WIDTH];
+            newRoot[0] = root;
+            newRoot[1] = newPath(shift, leaf);
+            return new PersistentVector<>(count + WIDTH, shift + BITS, newRoot, EMPTY_TAIL);
+        }
+        return new PersistentVector<>(count + WIDTH, shift, withLeaf(shift, root, count, leaf), EMPTY_TAIL);
+    }
+
+    private static Object[] withLeaf(int level, Object[] parent, int count, Object[] leaf) {
+        int index = (count >>> level) & MASK;
+        Object[] node = parent.clone();
+        if (level == BITS) {
+            node[index] = leaf;
+        } else {
+            Object[] child = (Object[]) parent[index];
+            node[index] = child != null ? withLeaf(level - BITS, child, count, leaf) : newPath(level - BITS, leaf);
+        }
+        return node;
+    }
+
+    private static Object[] newPath(int level, Object[] leaf) {
+        if (level == 0)
+            return leaf;
+        Object[] node = new Object[WIDTH];
+        node[0] = newPath(level - BITS, leaf);
+        return node;
+    }
+
+    private static Object[] withIndex(int level, Object[] node, int index, Object e) {
+        Object[] copy = node.clone();
+        if (level == 0) {
+            copy[index & MASK] = e;
+        } else {
+            int child = (index >>> level) & MASK;
+            copy[child] = withIndex(level - BITS, (Object[]) node[child], index, e);
+        }
+        return copy;
+    }
+
+    private Object[] withoutLastLeaf(int level, Object[] node) {
+        int index = ((size - 2) >>> level) & MASK;
+        if (level > BITS) {
+            Object[] child = withoutLastLeaf(level - BITS, (Object[]) node[index]);
+            if (child == null && index == 0)
+                return null;
+            Object[] copy = node.clone();
+            copy[index] = child;
+            return copy;
+        }
+        if (index == 0)
+            return null;
+        Object[] copy = node.clone();
+        copy[index] = null;
+        return copy;
+    }
+}
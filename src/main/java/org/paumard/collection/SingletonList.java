@@ -20,15 +20,19 @@ package org.paumard.collection;
 
 import org.paumard.collection.iterator.SingletonIterator;
 import org.paumard.collection.spliterator.SingletonSpliterator;
+import org.paumard.collection.stream.SmallStream;
+import org.paumard.serialization.SerializationProxy;
 
+import java.io.Serializable;
 import java.util.*;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
+import java.util.stream.Stream;
 import java.util.function.UnaryOperator;
 
 @FunctionalInterface
-public interface SingletonList<E> extends List<E>, Supplier<E> {
+public interface SingletonList<E> extends PersistentList<E>, Supplier<E>, Serializable {
 
     default Supplier<E> indexOutOfBoundsException() { 
         return () -> { throw new IndexOutOfBoundsException(); };
@@ -40,7 +44,26 @@ public interface SingletonList<E> extends List<E>, Supplier<E> {
     
     static <E> SingletonList<E> of(E e) {
         Objects.requireNonNull(e);
-        return () -> e;
+        int hashCode = 31 + e.hashCode();
+        return new SingletonList<E>() {
+            public E get() {
+                return e;
+            }
+
+            public int hashCode() {
+                return hashCode;
+            }
+
+            public boolean equals(Object o) {
+                return o instanceof SingletonList ?
+                       e.equals(((SingletonList<?>) o).get()) :
+                       CollectionContracts.listEquals(this, o);
+            }
+
+            private Object writeReplace() {
+                return new SerializationProxy(this);
+            }
+        };
     }
 
     default int size() {
@@ -68,6 +91,22 @@ public interface SingletonList<E> extends List<E>, Supplier<E> {
     	return (T[]) Arrays.copyOf(new Object[] { get() }, 1, a.getClass());
     }
 
+    default TwoElementsList<E> with(E e) {
+        return TwoElementsList.of(get(), e);
+    }
+
+    default SingletonList<E> withIndex(int index, E e) {
+        if (index != 0)
+            throw new IndexOutOfBoundsException("Index: " + index + ", size: 1");
+        return SingletonList.of(e);
+    }
+
+    default PersistentList<E> without(int index) {
+        if (index != 0)
+            throw new IndexOutOfBoundsException("Index: " + index + ", size: 1");
+        return PersistentVector.empty();
+    }
+
     default E get(int index) {
         return (index == 0 ? this : indexOutOfBoundsException()).get();
     }
@@ -126,8 +165,13 @@ public interface SingletonList<E> extends List<E>, Supplier<E> {
         };
     }
 
+    default Stream<E> stream() {
+        return SmallStream.of(this, i -> get(), 1);
+    }
+
     default Spliterator<E> spliterator() {
-        return new SingletonSpliterator<>(this);
+        return new SingletonSpliterator<>(this,
+                Spliterator.DISTINCT | Spliterator.IMMUTABLE | Spliterator.NONNULL | Spliterator.ORDERED);
     }
 
     default ListIterator<E> listIterator() {
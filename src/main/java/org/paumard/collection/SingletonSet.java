@@ -20,18 +20,41 @@ package org.paumard.collection;
 
 import org.paumard.collection.iterator.SingletonIterator;
 import org.paumard.collection.spliterator.SingletonSpliterator;
+import org.paumard.collection.stream.SmallStream;
+import org.paumard.serialization.SerializationProxy;
 
+import java.io.Serializable;
 import java.util.*;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 @FunctionalInterface
-public interface SingletonSet<E> extends Set<E>, Supplier<E> {
+public interface SingletonSet<E> extends Set<E>, Supplier<E>, Serializable {
 
     static <E> SingletonSet<E> of(E e) {
     	Objects.requireNonNull(e);
-        return () -> e;
+        int hashCode = e.hashCode();
+        return new SingletonSet<E>() {
+            public E get() {
+                return e;
+            }
+
+            public int hashCode() {
+                return hashCode;
+            }
+
+            public boolean equals(Object o) {
+                return o instanceof SingletonSet ?
+                       e.equals(((SingletonSet<?>) o).get()) :
+                       CollectionContracts.setEquals(this, o);
+            }
+
+            private Object writeReplace() {
+                return new SerializationProxy(this);
+            }
+        };
     }
 
     default int size() {
@@ -50,8 +73,13 @@ public interface SingletonSet<E> extends Set<E>, Supplier<E> {
         return new SingletonIterator<>(this);
     }
 
+    default Stream<E> stream() {
+        return SmallStream.of(this, i -> get(), 1);
+    }
+
     default Spliterator<E> spliterator() {
-        return new SingletonSpliterator<>(this);
+        return new SingletonSpliterator<>(this,
+                Spliterator.DISTINCT | Spliterator.IMMUTABLE | Spliterator.NONNULL);
     }
 
     default boolean containsAll(Collection<?> c) {
@@ -0,0 +1,164 @@
+/*
+ * Copyright (C) 2016 Jos Paumard
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+
+package org.paumard.collection;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+final class SmallCollections {
+
+    private SmallCollections() {
+    }
+
+    // takes ownership of the array; the hash codes of the elements are kept
+    // to look for the candidates of indexOf() before calling equals()
+    static <E> SmallList<E> smallList(Object[] elements) {
+        int[] hashes = new int[elements.length];
+        int hashCode = 1;
+        for (int i = 0; i < elements.length; i++) {
+            hashes[i] = Objects.requireNonNull(elements[i]).hashCode();
+            hashCode = 31 * hashCode + hashes[i];
+        }
+        int cachedHashCode = hashCode;
+        return new SmallList<E>() {
+            @SuppressWarnings("unchecked")
+            public E apply(int i) {
+                return (E) elements[i];
+            }
+
+            public int indexOf(Object o) {
+                if (o == null)
+                    return -1;
+                int hash = o.hashCode();
+                int i = ArrayProbes.indexOf(hashes, 0, hashes.length, hash);
+                while (i >= 0 && !o.equals(elements[i])) {
+                    i = ArrayProbes.indexOf(hashes, i + 1, hashes.length, hash);
+                }
+                return i;
+            }
+
+            public int size() {
+                return elements.length;
+            }
+
+            public Object[] toArray() {
+                return elements.clone();
+            }
+
+            public int hashCode() {
+                return cachedHashCode;
+            }
+
+            public boolean equals(Object o) {
+                if (o instanceof SmallList && o.getClass() == getClass() && cachedHashCode != o.hashCode())
+                    return false;
+                return CollectionContracts.listEquals(this, o);
+            }
+        };
+    }
+
+    // length of a table holding size elements, at most half full
+    static int tableLength(int size) {
+        return Integer.highestOneBit(Math.max(2 * size - 1, 1)) << 1;
+    }
+
+    static int start(Object o, int length) {
+        int h = o.hashCode();
+        return (h ^ (h >>> 16)) & (length - 1);
+    }
+
+    static int next(int index, int length) {
+        return (index + 1) & (length - 1);
+    }
+
+    static <E> SmallSet<E> smallSet(Object[] elements, boolean checkDuplicates) {
+        Object[] table = new Object[tableLength(elements.length)];
+        int hashCode = 0;
+        for (Object e : elements) {
+            Objects.requireNonNull(e);
+            int index = start(e, table.length);
+            Object t;
+            while ((t = table[index]) != null) {
+                if (checkDuplicates && t.equals(e))
+                    throw new IllegalArgumentException("duplicate elements");
+                index = next(index, table.length);
+            }
+            table[index] = e;
+            hashCode += e.hashCode();
+        }
+        int size = elements.length;
+        int cachedHashCode = hashCode;
+        return new SmallSet<E>() {
+            @SuppressWarnings("unchecked")
+            public E apply(int i) {
+                return (E) table[i];
+            }
+
+            public int size() {
+                return size;
+            }
+
+            public int hashCode() {
+                return cachedHashCode;
+            }
+
+            public boolean equals(Object o) {
+                if (o instanceof SmallSet && o.getClass() == getClass() && cachedHashCode != o.hashCode())
+                    return false;
+                return CollectionContracts.setEquals(this, o);
+            }
+        };
+    }
+
+    // walks the occupied slots of a table
+    static final class SlotIterator<E> implements Iterator<E> {
+
+        private final SmallSet<E> set;
+        private final int length;
+        private int index;
+
+        SlotIterator(SmallSet<E> set, int length) {
+            this.set = set;
+            this.length = length;
+            this.index = advance(0);
+        }
+
+        private int advance(int from) {
+            while (from < length && set.apply(from) == null) {
+                from++;
+            }
+            return from;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return index < length;
+        }
+
+        @Override
+        public E next() {
+            if (index >= length)
+                throw new NoSuchElementException();
+            E result = set.apply(index);
+            index = advance(index + 1);
+            return result;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright (C) 2016 Jos Paumard
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+
+package org.paumard.collection;
+
+import java.util.Collection;
+
+/**
+ * An immutable list of any size backed by an array, for the sizes that
+ * the fixed-arity lists do not cover. Null elements are not allowed.
+ */
+public interface SmallList<E> extends IndexedList<E> {
+
+    @SafeVarargs
+    static <E> SmallList<E> of(E... elements) {
+        Object[] copy = new Object[elements.length];
+        for (int i = 0; i < elements.length; i++) {
+            copy[i] = elements[i];
+        }
+        return SmallCollections.smallList(copy);
+    }
+
+    static <E> SmallList<E> copyOf(Collection<? extends E> collection) {
+        return SmallCollections.smallList(collection.toArray());
+    }
+}
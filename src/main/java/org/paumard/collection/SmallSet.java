@@ -0,0 +1,151 @@
+/*
+ * Copyright (C) 2016 Jos Paumard
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+
+package org.paumard.collection;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+import java.util.function.Predicate;
+
+/**
+ * An immutable set for the sizes that the fixed-arity sets do not cover. It
+ * follows the same rules as {@link TwoElementsSet}: no null elements, no
+ * duplicates.
+ * <p>
+ * The elements are placed in an array by linear probing from their hash, in
+ * a table that is at most half full. {@code apply(i)} returns the element in
+ * slot i of this table, null for an empty slot.
+ */
+public interface SmallSet<E> extends Set<E>, IntFunction<E> {
+
+    @SafeVarargs
+    static <E> SmallSet<E> of(E... elements) {
+        Object[] copy = new Object[elements.length];
+        for (int i = 0; i < elements.length; i++) {
+            copy[i] = elements[i];
+        }
+        return SmallCollections.smallSet(copy, true);
+    }
+
+    /**
+     * The duplicate elements of a collection that is not a set are merged.
+     * The elements of a set are checked for duplicates with {@code equals()},
+     * since the set may not use it, as a set built on an
+     * {@code IdentityHashMap}.
+     */
+    @SuppressWarnings("unchecked")
+    static <E> SmallSet<E> copyOf(Collection<? extends E> collection) {
+        if (collection instanceof SmallSet)
+            return (SmallSet<E>) collection;
+        if (collection instanceof Set)
+            return SmallCollections.smallSet(collection.toArray(), true);
+        return SmallCollections.smallSet(new LinkedHashSet<>(collection).toArray(), false);
+    }
+
+    default boolean isEmpty() {
+        return size() == 0;
+    }
+
+    default boolean contains(Object o) {
+        if (o == null)
+            return false;
+        int length = SmallCollections.tableLength(size());
+        E e;
+        for (int index = SmallCollections.start(o, length); (e = apply(index)) != null; index = SmallCollections.next(index, length)) {
+            if (e == o || e.equals(o))
+                return true;
+        }
+        return false;
+    }
+
+    default Iterator<E> iterator() {
+        return new SmallCollections.SlotIterator<>(this, SmallCollections.tableLength(size()));
+    }
+
+    default Spliterator<E> spliterator() {
+        return Spliterators.spliterator(this,
+                Spliterator.DISTINCT | Spliterator.IMMUTABLE | Spliterator.NONNULL);
+    }
+
+    default Object[] toArray() {
+        Object[] array = new Object[size()];
+        int length = SmallCollections.tableLength(size());
+        for (int index = 0, i = 0; index < length; index++) {
+            E e = apply(index);
+            if (e != null)
+                array[i++] = e;
+        }
+        return array;
+    }
+
+    @SuppressWarnings("unchecked")
+    default <T> T[] toArray(T[] a) {
+        return (T[]) Arrays.copyOf(toArray(), size(), a.getClass());
+    }
+
+    default boolean containsAll(Collection<?> c) {
+        Objects.requireNonNull(c);
+        return c.stream().allMatch(this::contains);
+    }
+
+    default void forEach(Consumer<? super E> action) {
+        Objects.requireNonNull(action);
+        int length = SmallCollections.tableLength(size());
+        for (int index = 0; index < length; index++) {
+            E e = apply(index);
+            if (e != null)
+                action.accept(e);
+        }
+    }
+
+    default boolean add(E e) {
+        throw new UnsupportedOperationException();
+    }
+
+    default boolean remove(Object o) {
+        throw new UnsupportedOperationException();
+    }
+
+    default boolean addAll(Collection<? extends E> c) {
+        throw new UnsupportedOperationException();
+    }
+
+    default boolean retainAll(Collection<?> c) {
+        throw new UnsupportedOperationException();
+    }
+
+    default boolean removeAll(Collection<?> c) {
+        throw new UnsupportedOperationException();
+    }
+
+    default void clear() {
+        throw new UnsupportedOperationException();
+    }
+
+    default boolean removeIf(Predicate<? super E> filter) {
+        throw new UnsupportedOperationException();
+    }
+}
@@ -0,0 +1,247 @@
+/*
+ * Copyright (C) 2016 Jos Paumard
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+
+package org.paumard.collection;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NavigableSet;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.SortedSet;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+import java.util.function.Predicate;
+
+import org.paumard.collection.iterator.IndexedIterator;
+import org.paumard.collection.spliterator.IndexedSpliterator;
+
+/**
+ * An immutable sorted set of a few tens of elements, with no null elements
+ * and no duplicates. {@code apply(i)} returns the element of rank i, the
+ * elements being sorted by their comparator when the set is built, or by
+ * their natural order if it is null.
+ * <p>
+ * The navigation methods do not use a binary search: {@link #rank} compares
+ * the given element with all the elements of the set, and counts the lower
+ * ones. For a few elements, this loop costs less than the mispredicted
+ * branches of a binary search, or than following the nodes of a
+ * {@code TreeSet}. The sub-sets and the descending set are views, and a
+ * sub-set rejects the bounds of its own sub-sets that are out of its range.
+ */
+public interface SmallSortedSet<E> extends NavigableSet<E>, IntFunction<E> {
+
+    @SafeVarargs
+    @SuppressWarnings("unchecked")
+    static <E> SmallSortedSet<E> of(Comparator<? super E> comparator, E... elements) {
+        Comparator<? super E> order = SortedCollections.order(comparator);
+        E[] sorted = (E[]) new Object[elements.length];
+        for (int i = 0; i < elements.length; i++) {
+            sorted[i] = Objects.requireNonNull(elements[i]);
+        }
+        Arrays.sort(sorted, order);
+        for (int i = 1; i < sorted.length; i++) {
+            if (order.compare(sorted[i - 1], sorted[i]) == 0)
+                throw new IllegalArgumentException("duplicate elements");
+        }
+        return SortedCollections.sortedSet(i -> sorted[i], sorted.length, comparator);
+    }
+
+    @SuppressWarnings("unchecked")
+    static <E> SmallSortedSet<E> copyOf(SortedSet<E> set) {
+        if (set instanceof SmallSortedSet)
+            return (SmallSortedSet<E>) set;
+        return of(set.comparator(), (E[]) set.toArray());
+    }
+
+    int size();
+
+    /**
+     * Returns the number of elements of this set that are lower than the
+     * given element, or lower or equal if inclusive.
+     */
+    default int rank(E e, boolean inclusive) {
+        Objects.requireNonNull(e);
+        Comparator<? super E> order = SortedCollections.order(comparator());
+        int size = size();
+        int rank = 0;
+        for (int i = 0; i < size; i++) {
+            rank += SortedCollections.below(order.compare(apply(i), e), inclusive);
+        }
+        return rank;
+    }
+
+    default boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Returns the rank of the given element in this set, or -1 if it is not
+     * an element of this set.
+     */
+    @SuppressWarnings("unchecked")
+    default int indexOf(Object o) {
+        E e = (E) o;
+        int rank = rank(e, false);
+        return rank < size() && SortedCollections.order(comparator()).compare(apply(rank), e) == 0 ? rank : -1;
+    }
+
+    default boolean contains(Object o) {
+        return indexOf(o) >= 0;
+    }
+
+    default Iterator<E> iterator() {
+        return new IndexedIterator<>(this, size());
+    }
+
+    default Iterator<E> descendingIterator() {
+        return descendingSet().iterator();
+    }
+
+    default Spliterator<E> spliterator() {
+        return new IndexedSpliterator<>(this, size(), comparator(),
+                Spliterator.DISTINCT | Spliterator.IMMUTABLE | Spliterator.NONNULL);
+    }
+
+    default E first() {
+        if (isEmpty())
+            throw new NoSuchElementException();
+        return apply(0);
+    }
+
+    default E last() {
+        if (isEmpty())
+            throw new NoSuchElementException();
+        return apply(size() - 1);
+    }
+
+    default E lower(E e) {
+        int rank = rank(e, false);
+        return rank > 0 ? apply(rank - 1) : null;
+    }
+
+    default E floor(E e) {
+        int rank = rank(e, true);
+        return rank > 0 ? apply(rank - 1) : null;
+    }
+
+    default E ceiling(E e) {
+        int rank = rank(e, false);
+        return rank < size() ? apply(rank) : null;
+    }
+
+    default E higher(E e) {
+        int rank = rank(e, true);
+        return rank < size() ? apply(rank) : null;
+    }
+
+    default SmallSortedSet<E> descendingSet() {
+        return SortedCollections.descendingSet(this);
+    }
+
+    default SmallSortedSet<E> subSet(E fromElement, boolean fromInclusive, E toElement, boolean toInclusive) {
+        if (SortedCollections.order(comparator()).compare(fromElement, toElement) > 0)
+            throw new IllegalArgumentException("fromElement > toElement");
+        return SortedCollections.subSet(this, fromElement, fromInclusive, toElement, toInclusive);
+    }
+
+    default SmallSortedSet<E> headSet(E toElement, boolean inclusive) {
+        return SortedCollections.headSet(this, toElement, inclusive);
+    }
+
+    default SmallSortedSet<E> tailSet(E fromElement, boolean inclusive) {
+        return SortedCollections.tailSet(this, fromElement, inclusive);
+    }
+
+    default SmallSortedSet<E> subSet(E fromElement, E toElement) {
+        return subSet(fromElement, true, toElement, false);
+    }
+
+    default SmallSortedSet<E> headSet(E toElement) {
+        return headSet(toElement, false);
+    }
+
+    default SmallSortedSet<E> tailSet(E fromElement) {
+        return tailSet(fromElement, true);
+    }
+
+    default Object[] toArray() {
+        Object[] array = new Object[size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = apply(i);
+        }
+        return array;
+    }
+
+    @SuppressWarnings("unchecked")
+    default <T> T[] toArray(T[] a) {
+        return (T[]) Arrays.copyOf(toArray(), size(), a.getClass());
+    }
+
+    default boolean containsAll(Collection<?> c) {
+        Objects.requireNonNull(c);
+        return c.stream().allMatch(this::contains);
+    }
+
+    default void forEach(Consumer<? super E> action) {
+        Objects.requireNonNull(action);
+        int size = size();
+        for (int i = 0; i < size; i++) {
+            action.accept(apply(i));
+        }
+    }
+
+    default E pollFirst() {
+        throw new UnsupportedOperationException();
+    }
+
+    default E pollLast() {
+        throw new UnsupportedOperationException();
+    }
+
+    default boolean add(E e) {
+        throw new UnsupportedOperationException();
+    }
+
+    default boolean remove(Object o) {
+        throw new UnsupportedOperationException();
+    }
+
+    default boolean addAll(Collection<? extends E> c) {
+        throw new UnsupportedOperationException();
+    }
+
+    default boolean retainAll(Collection<?> c) {
+        throw new UnsupportedOperationException();
+    }
+
+    default boolean removeAll(Collection<?> c) {
+        throw new UnsupportedOperationException();
+    }
+
+    default void clear() {
+        throw new UnsupportedOperationException();
+    }
+
+    default boolean removeIf(Predicate<? super E> filter) {
+        throw new UnsupportedOperationException();
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright (C) 2016 Jos Paumard
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+
+package org.paumard.collection;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Objects;
+import java.util.function.IntFunction;
+
+/**
+ * The views of the small sorted sets, and the comparisons they share.
+ * <p>
+ * A sub-set remembers the range it was built with, as the views of a
+ * {@code TreeSet} do: a sub-set of a sub-set, with a bound out of this range,
+ * throws an {@code IllegalArgumentException}, instead of being silently empty.
+ */
+final class SortedCollections {
+
+    private SortedCollections() {
+    }
+
+    // the comparator of a sorted set, or the natural order if it is null
+    @SuppressWarnings("unchecked")
+    static <E> Comparator<? super E> order(Comparator<? super E> comparator) {
+        return comparator != null ? comparator : (Comparator<? super E>) Comparator.naturalOrder();
+    }
+
+    /**
+     * Returns 1 if the comparison tells that an element is lower than another
+     * one, or lower or equal if inclusive, and 0 otherwise, without a branch.
+     */
+    static int below(int comparison, boolean inclusive) {
+        return (Integer.signum(comparison) - (inclusive ? 1 : 0)) >>> 31;
+    }
+
+    static <E> SmallSortedSet<E> sortedSet(IntFunction<E> elements, int size, Comparator<? super E> comparator) {
+        return new SortedSlice<>(elements, size, comparator, null);
+    }
+
+    static <E> SmallSortedSet<E> subSet(SmallSortedSet<E> set, E fromElement, boolean fromInclusive, E toElement, boolean toInclusive) {
+        Range<E> range = rangeOf(set);
+        range.check(fromElement, fromInclusive);
+        range.check(toElement, toInclusive);
+        return slice(set, set.rank(fromElement, !fromInclusive), set.rank(toElement, toInclusive),
+                range.from(fromElement, fromInclusive).to(toElement, toInclusive));
+    }
+
+    static <E> SmallSortedSet<E> headSet(SmallSortedSet<E> set, E toElement, boolean inclusive) {
+        Range<E> range = rangeOf(set);
+        range.check(toElement, inclusive);
+        return slice(set, 0, set.rank(toElement, inclusive), range.to(toElement, inclusive));
+    }
+
+    static <E> SmallSortedSet<E> tailSet(SmallSortedSet<E> set, E fromElement, boolean inclusive) {
+        Range<E> range = rangeOf(set);
+        range.check(fromElement, inclusive);
+        return slice(set, set.rank(fromElement, !inclusive), set.size(), range.from(fromElement, inclusive));
+    }
+
+    static <E> SmallSortedSet<E> descendingSet(SmallSortedSet<E> set) {
+        int last = set.size() - 1;
+        Comparator<? super E> reversed = Collections.reverseOrder(set.comparator());
+        Range<E> range = set instanceof SortedSlice ? ((SortedSlice<E>) set).range : null;
+        return new SortedSlice<>(i -> set.apply(last - i), set.size(), reversed,
+                range != null ? range.reversed(order(reversed)) : null);
+    }
+
+    private static <E> SmallSortedSet<E> slice(SmallSortedSet<E> set, int from, int to, Range<E> range) {
+        return new SortedSlice<>(i -> set.apply(from + i), Math.max(to - from, 0), set.comparator(), range);
+    }
+
+    // the range of a sub-set, or the unbounded range of a set
+    private static <E> Range<E> rangeOf(SmallSortedSet<E> set) {
+        if (set instanceof SortedSlice && ((SortedSlice<E>) set).range != null)
+            return ((SortedSlice<E>) set).range;
+        return new Range<>(order(set.comparator()), null, false, null, false);
+    }
+
+    // the sorted sets built by this class, and the range of the sub-sets, null for the others
+    private static final class SortedSlice<E> implements SmallSortedSet<E> {
+
+        private final IntFunction<E> elements;
+        private final int size;
+        private final Comparator<? super E> comparator;
+        private final Range<E> range;
+        private int hashCode;
+
+        private SortedSlice(IntFunction<E> elements, int size, Comparator<? super E> comparator, Range<E> range) {
+            this.elements = elements;
+            this.size = size;
+            this.comparator = comparator;
+            this.range = range;
+        }
+
+        public E apply(int i) {
+            return elements.apply(i);
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public Comparator<? super E> comparator() {
+            return comparator;
+        }
+
+        public int hashCode() {
+            int h = hashCode;
+            if (h == 0) {
+                for (int i = 0; i < size; i++) {
+                    h += elements.apply(i).hashCode();
+                }
+                hashCode = h;
+            }
+            return h;
+        }
+
+        public boolean equals(Object o) {
+            return CollectionContracts.setEquals(this, o);
+        }
+    }
+
+    // the bounds of a sub-set, a null bound meaning no bound
+    private static final class Range<E> {
+
+        private final Comparator<? super E> order;
+        private final E low;
+        private final boolean lowInclusive;
+        private final E high;
+        private final boolean highInclusive;
+
+        private Range(Comparator<? super E> order, E low, boolean lowInclusive, E high, boolean highInclusive) {
+            this.order = order;
+            this.low = low;
+            this.lowInclusive = lowInclusive;
+            this.high = high;
+            this.highInclusive = highInclusive;
+        }
+
+        // the bound of a new sub-set must be in this range, or on an exclusive bound if it is exclusive too
+        private void check(E e, boolean inclusive) {
+            Objects.requireNonNull(e);
+            boolean tooLow = low != null && below(order.compare(e, low), inclusive && !lowInclusive) == 1;
+            boolean tooHigh = high != null && below(order.compare(high, e), inclusive && !highInclusive) == 1;
+            if (tooLow || tooHigh)
+                throw new IllegalArgumentException("Element out of range: " + e);
+        }
+
+        private Range<E> from(E low, boolean inclusive) {
+            return new Range<>(order, low, inclusive, high, highInclusive);
+        }
+
+        private Range<E> to(E high, boolean inclusive) {
+            return new Range<>(order, low, lowInclusive, high, inclusive);
+        }
+
+        private Range<E> reversed(Comparator<? super E> reversedOrder) {
+            return new Range<>(reversedOrder, high, highInclusive, low, lowInclusive);
+        }
+    }
+}
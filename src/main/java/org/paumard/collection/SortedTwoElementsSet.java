@@ -0,0 +1,80 @@
+/*
+ * Copyright (C) 2016 Jos Paumard
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+
+package org.paumard.collection;
+
+import java.util.Comparator;
+import java.util.Objects;
+
+/**
+ * A sorted set of two elements, ordered when it is built. Its rank is
+ * computed with two comparisons, and no branch.
+ */
+public interface SortedTwoElementsSet<E> extends SmallSortedSet<E> {
+
+    static <E> SortedTwoElementsSet<E> of(Comparator<? super E> comparator, E e1, E e2) {
+        Objects.requireNonNull(e1);
+        Objects.requireNonNull(e2);
+        int comparison = SortedCollections.order(comparator).compare(e1, e2);
+        if (comparison == 0)
+            throw new IllegalArgumentException("duplicate elements");
+        E first = comparison < 0 ? e1 : e2;
+        E second = comparison < 0 ? e2 : e1;
+        int hashCode = e1.hashCode() + e2.hashCode();
+        return new SortedTwoElementsSet<E>() {
+            public E apply(int i) {
+                return i == 0 ? first : second;
+            }
+
+            public Comparator<? super E> comparator() {
+                return comparator;
+            }
+
+            public int hashCode() {
+                return hashCode;
+            }
+
+            public boolean equals(Object o) {
+                return CollectionContracts.setEquals(this, o);
+            }
+        };
+    }
+
+    default int size() {
+        return 2;
+    }
+
+    default boolean isEmpty() {
+        return false;
+    }
+
+    default int rank(E e, boolean inclusive) {
+        Objects.requireNonNull(e);
+        Comparator<? super E> order = SortedCollections.order(comparator());
+        return SortedCollections.below(order.compare(apply(0), e), inclusive) +
+               SortedCollections.below(order.compare(apply(1), e), inclusive);
+    }
+
+    default E first() {
+        return apply(0);
+    }
+
+    default E last() {
+        return apply(1);
+    }
+}
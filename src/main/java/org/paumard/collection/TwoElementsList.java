@@ -18,6 +18,7 @@
 
 package org.paumard.collection;
 
+import java.io.Serializable;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
@@ -31,17 +32,62 @@ import java.util.function.Consumer;
 import java.util.function.IntFunction;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 import org.paumard.collection.iterator.TwoElementsIterator;
 import org.paumard.collection.spliterator.TwoElementsSpliterator;
+import org.paumard.collection.stream.SmallStream;
+import org.paumard.serialization.SerializationProxy;
 
 @FunctionalInterface
-public interface TwoElementsList<E> extends List<E>, IntFunction<E> {
+public interface TwoElementsList<E> extends PersistentList<E>, IntFunction<E>, Serializable {
 
     static <E> TwoElementsList<E> of(E e1, E e2) {
         Objects.requireNonNull(e1);
         Objects.requireNonNull(e2);
-        return i -> i == 0 ? e1 : e2;
+        int hashCode = 31 * (31 + e1.hashCode()) + e2.hashCode();
+        return new TwoElementsList<E>() {
+            public E apply(int i) {
+                return i == 0 ? e1 : e2;
+            }
+
+            public int hashCode() {
+                return hashCode;
+            }
+
+            public boolean equals(Object o) {
+                if (o instanceof TwoElementsList) {
+                    TwoElementsList<?> other = (TwoElementsList<?>) o;
+                    return (o.getClass() != getClass() || hashCode == o.hashCode()) &&
+                           e1.equals(other.get(0)) && e2.equals(other.get(1));
+                }
+                return CollectionContracts.listEquals(this, o);
+            }
+
+            private Object writeReplace() {
+                return new SerializationProxy(this);
+            }
+        };
+    }
+
+    default PersistentVector<E> with(E e) {
+        return PersistentVector.of(apply(0), apply(1), e);
+    }
+
+    default TwoElementsList<E> withIndex(int index, E e) {
+        switch (index) {
+            case 0: return TwoElementsList.of(e, apply(1));
+            case 1: return TwoElementsList.of(apply(0), e);
+            default: throw new IndexOutOfBoundsException("Index: " + index + ", size: 2");
+        }
+    }
+
+    default SingletonList<E> without(int index) {
+        switch (index) {
+            case 0: return SingletonList.of(apply(1));
+            case 1: return SingletonList.of(apply(0));
+            default: throw new IndexOutOfBoundsException("Index: " + index + ", size: 2");
+        }
     }
 
     default E get(int index) {
@@ -64,10 +110,14 @@ public interface TwoElementsList<E> extends List<E>, IntFunction<E> {
         return new TwoElementsIterator<>(this);
     }
 
+    default Stream<E> stream() {
+        return SmallStream.of(this, this, 2);
+    }
+
     default Spliterator<E> spliterator() {
         return new TwoElementsSpliterator<>(this, 
-        		Spliterator.CONCURRENT | Spliterator.IMMUTABLE | 
-        		Spliterator.NONNULL | Spliterator.SIZED);
+        		Spliterator.IMMUTABLE | Spliterator.NONNULL | Spliterator.ORDERED |
+        		Spliterator.SIZED | Spliterator.SUBSIZED);
     }
 
     default Object[] toArray() {
@@ -18,6 +18,7 @@
 
 package org.paumard.collection;
 
+import java.io.Serializable;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Iterator;
@@ -27,19 +28,44 @@ import java.util.Spliterator;
 import java.util.function.Consumer;
 import java.util.function.IntFunction;
 import java.util.function.Predicate;
+import java.util.stream.Stream;
 
 import org.paumard.collection.iterator.TwoElementsIterator;
 import org.paumard.collection.spliterator.TwoElementsSpliterator;
+import org.paumard.collection.stream.SmallStream;
+import org.paumard.serialization.SerializationProxy;
 
 @FunctionalInterface
-public interface TwoElementsSet<E> extends Set<E>, IntFunction<E> {
+public interface TwoElementsSet<E> extends Set<E>, IntFunction<E>, Serializable {
 
     static <E> TwoElementsSet<E> of(E e1, E e2) {
     	Objects.requireNonNull(e1);
         Objects.requireNonNull(e2);
         if (e1.equals(e2))
         	throw new IllegalArgumentException("duplicate elements");
-        return i -> i == 0 ? e1 : e2;
+        int hashCode = e1.hashCode() + e2.hashCode();
+        return new TwoElementsSet<E>() {
+            public E apply(int i) {
+                return i == 0 ? e1 : e2;
+            }
+
+            public int hashCode() {
+                return hashCode;
+            }
+
+            public boolean equals(Object o) {
+                if (o instanceof TwoElementsSet) {
+                    TwoElementsSet<?> other = (TwoElementsSet<?>) o;
+                    return (o.getClass() != getClass() || hashCode == o.hashCode()) &&
+                           other.contains(e1) && other.contains(e2);
+                }
+                return CollectionContracts.setEquals(this, o);
+            }
+
+            private Object writeReplace() {
+                return new SerializationProxy(this);
+            }
+        };
     }
 
     default int size() {
@@ -58,10 +84,14 @@ public interface TwoElementsSet<E> extends Set<E>, IntFunction<E> {
         return new TwoElementsIterator<>(this);
     }
 
+    default Stream<E> stream() {
+        return SmallStream.of(this, this, 2);
+    }
+
     default Spliterator<E> spliterator() {
         return new TwoElementsSpliterator<>(this, 
-        		Spliterator.CONCURRENT | Spliterator.DISTINCT | Spliterator.IMMUTABLE | 
-        		Spliterator.NONNULL | Spliterator.SIZED);
+        		Spliterator.DISTINCT | Spliterator.IMMUTABLE | Spliterator.NONNULL |
+        		Spliterator.SIZED | Spliterator.SUBSIZED);
     }
 
     default Object[] toArray() {
@@ -0,0 +1,48 @@
+/*
+ * Copyright (C) 2016 Jos Paumard
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+
+package org.paumard.collection.iterator;
+
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.function.IntToLongFunction;
+
+public class LongIndexedIterator implements PrimitiveIterator.OfLong {
+
+    private int cursor = 0;
+
+    private final IntToLongFunction function;
+    private final int size;
+
+    public LongIndexedIterator(IntToLongFunction function, int size) {
+        this.function = function;
+        this.size = size;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return cursor < size;
+    }
+
+    @Override
+    public long nextLong() {
+        if (cursor >= size)
+            throw new NoSuchElementException();
+        return function.applyAsLong(cursor++);
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright (C) 2016 Jos Paumard
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+
+package org.paumard.collection.spliterator;
+
+import java.util.Comparator;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+
+public class IndexedSpliterator<E> implements Spliterator<E> {
+
+    private final IntFunction<E> function;
+    private int index;
+    private final int fence;
+    private final int characteristics;
+    private final Comparator<? super E> comparator;
+
+    public IndexedSpliterator(IntFunction<E> function, int size, int characteristics) {
+        this(function, 0, size, characteristics);
+    }
+
+    public IndexedSpliterator(IntFunction<E> function, int origin, int fence, int characteristics) {
+        this(function, origin, fence, characteristics, null);
+    }
+
+    /**
+     * A spliterator over elements sorted by the comparator, or by their
+     * natural order if it is null. It reports SORTED and ORDERED.
+     */
+    public IndexedSpliterator(IntFunction<E> function, int size, Comparator<? super E> comparator, int characteristics) {
+        this(function, 0, size, characteristics | Spliterator.SORTED | Spliterator.ORDERED, comparator);
+    }
+
+    private IndexedSpliterator(IntFunction<E> function, int origin, int fence, int characteristics, Comparator<? super E> comparator) {
+        this.function = function;
+        this.index = origin;
+        this.fence = fence;
+        this.characteristics = characteristics | Spliterator.SIZED | Spliterator.SUBSIZED;
+        this.comparator = comparator;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super E> action) {
+        Objects.requireNonNull(action);
+        if (index >= fence)
+            return false;
+
+        action.accept(function.apply(index++));
+        return true;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super E> action) {
+        Objects.requireNonNull(action);
+        int i = index;
+        index = fence;
+        for (; i < fence; i++) {
+            action.accept(function.apply(i));
+        }
+    }
+
+    @Override
+    public Spliterator<E> trySplit() {
+        int origin = index;
+        int middle = (origin + fence) >>> 1;
+        if (origin >= middle)
+            return null;
+        index = middle;
+        return new IndexedSpliterator<>(function, origin, middle, characteristics, comparator);
+    }
+
+    @Override
+    public long estimateSize() {
+        return fence - index;
+    }
+
+    @Override
+    public int characteristics() {
+        return this.characteristics;
+    }
+
+    @Override
+    public Comparator<? super E> getComparator() {
+        if (hasCharacteristics(Spliterator.SORTED))
+            return comparator;
+        throw new IllegalStateException();
+    }
+}
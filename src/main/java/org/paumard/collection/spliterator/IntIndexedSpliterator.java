@@ -0,0 +1,83 @@
+/*
+ * Copyright (C) 2016 Jos Paumard
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+
+package org.paumard.collection.spliterator;
+
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.function.IntConsumer;
+import java.util.function.IntUnaryOperator;
+
+public class IntIndexedSpliterator implements Spliterator.OfInt {
+
+    private final IntUnaryOperator function;
+    private int index;
+    private final int fence;
+    private final int characteristics;
+
+    public IntIndexedSpliterator(IntUnaryOperator function, int size, int characteristics) {
+        this(function, 0, size, characteristics);
+    }
+
+    public IntIndexedSpliterator(IntUnaryOperator function, int origin, int fence, int characteristics) {
+        this.function = function;
+        this.index = origin;
+        this.fence = fence;
+        this.characteristics = characteristics | Spliterator.SIZED | Spliterator.SUBSIZED;
+    }
+
+    @Override
+    public boolean tryAdvance(IntConsumer action) {
+        Objects.requireNonNull(action);
+        if (index >= fence)
+            return false;
+
+        action.accept(function.applyAsInt(index++));
+        return true;
+    }
+
+    @Override
+    public void forEachRemaining(IntConsumer action) {
+        Objects.requireNonNull(action);
+        int i = index;
+        index = fence;
+        for (; i < fence; i++) {
+            action.accept(function.applyAsInt(i));
+        }
+    }
+
+    @Override
+    public Spliterator.OfInt trySplit() {
+        int origin = index;
+        int middle = (origin + fence) >>> 1;
+        if (origin >= middle)
+            return null;
+        index = middle;
+        return new IntIndexedSpliterator(function, origin, middle, characteristics);
+    }
+
+    @Override
+    public long estimateSize() {
+        return fence - index;
+    }
+
+    @Override
+    public int characteristics() {
+        return this.characteristics;
+    }
+}
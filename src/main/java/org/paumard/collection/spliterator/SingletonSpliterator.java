@@ -27,9 +27,15 @@ public class SingletonSpliterator<E> implements Spliterator<E> {
 
     private final Supplier<E> supplier;
     private boolean done = false;
+    private final int characteristics;
 
     public SingletonSpliterator(Supplier<E> supplier) {
+        this(supplier, Spliterator.IMMUTABLE | Spliterator.NONNULL | Spliterator.DISTINCT);
+    }
+
+    public SingletonSpliterator(Supplier<E> supplier, int characteristics) {
         this.supplier = supplier;
+        this.characteristics = characteristics | Spliterator.SIZED | Spliterator.SUBSIZED;
     }
 
     @Override
@@ -42,6 +48,15 @@ public class SingletonSpliterator<E> implements Spliterator<E> {
         return true;
     }
 
+    @Override
+    public void forEachRemaining(Consumer<? super E> action) {
+        Objects.requireNonNull(action);
+        if (!done) {
+            done = true;
+            action.accept(supplier.get());
+        }
+    }
+
     @Override
     public Spliterator<E> trySplit() {
         return null;
@@ -54,8 +69,6 @@ public class SingletonSpliterator<E> implements Spliterator<E> {
 
     @Override
     public int characteristics() {
-        return Spliterator.CONCURRENT |
-                Spliterator.IMMUTABLE | Spliterator.NONNULL |
-                Spliterator.DISTINCT | Spliterator.SIZED | Spliterator.SORTED;
+        return this.characteristics;
     }
 }
@@ -0,0 +1,446 @@
+/*
+ * Copyright (C) 2016 Jos Paumard
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+
+package org.paumard.collection.stream;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collector;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A sequential stream on a collection of a few elements, that does not build
+ * the pipeline of the JDK streams. The stream is a function from an index to
+ * an element, as the collection it is built on: {@code map()},
+ * {@code filter()} and {@code peek()} compose this function, and the
+ * terminal operations call it for each index, so that the elements still go
+ * through the operations one by one, and only when a terminal operation is
+ * called.
+ * <p>
+ * The stateful operations ({@code sorted()}, {@code distinct()},
+ * {@code limit()}, {@code skip()}), {@code flatMap()}, the primitive streams
+ * and the parallel streams are delegated to a JDK stream, built on a
+ * spliterator over this function.
+ */
+public final class SmallStream<T> implements Stream<T> {
+
+    // the value of an index whose element has been filtered out
+    private static final Object NONE = new Object();
+
+    private final Collection<? extends T> source;
+    private final IntFunction<?> elements;
+    private final int size;
+    private boolean linked;
+
+    // the first stage of the pipeline holds the close handlers of all the stages,
+    // and tells if the pipeline has been closed
+    private final SmallStream<?> head;
+    private Runnable closeHandler;
+    private boolean closed;
+
+    private SmallStream(Collection<? extends T> source, IntFunction<?> elements, int size, SmallStream<?> head) {
+        this.source = source;
+        this.elements = elements;
+        this.size = size;
+        this.head = head != null ? head : this;
+    }
+
+    /**
+     * Returns a stream on the elements of the collection, that are read with
+     * the given function from index 0 to size - 1.
+     */
+    public static <T> Stream<T> of(Collection<? extends T> collection, IntFunction<? extends T> elements, int size) {
+        return new SmallStream<>(collection, elements, size, null);
+    }
+
+    private IntFunction<?> link() {
+        if (linked || head.closed)
+            throw new IllegalStateException("stream has already been operated upon or closed");
+        linked = true;
+        return elements;
+    }
+
+    private <R> SmallStream<R> next(IntFunction<?> elements) {
+        return new SmallStream<>(null, elements, size, head);
+    }
+
+    private Stream<T> fallback() {
+        Stream<T> stream = StreamSupport.stream(spliterator(), false);
+        return head.closeHandler != null ? stream.onClose(head::close) : stream;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void forEachElement(IntFunction<?> elements, Consumer<? super T> action) {
+        for (int i = 0; i < size; i++) {
+            Object e = elements.apply(i);
+            if (e != NONE)
+                action.accept((T) e);
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Stream<T> filter(Predicate<? super T> predicate) {
+        Objects.requireNonNull(predicate);
+        IntFunction<?> elements = link();
+        return next(i -> {
+            Object e = elements.apply(i);
+            return e != NONE && predicate.test((T) e) ? e : NONE;
+        });
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <R> Stream<R> map(Function<? super T, ? extends R> mapper) {
+        Objects.requireNonNull(mapper);
+        IntFunction<?> elements = link();
+        return next(i -> {
+            Object e = elements.apply(i);
+            return e != NONE ? mapper.apply((T) e) : NONE;
+        });
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Stream<T> peek(Consumer<? super T> action) {
+        Objects.requireNonNull(action);
+        IntFunction<?> elements = link();
+        return next(i -> {
+            Object e = elements.apply(i);
+            if (e != NONE)
+                action.accept((T) e);
+            return e;
+        });
+    }
+
+    @Override
+    public IntStream mapToInt(ToIntFunction<? super T> mapper) {
+        return fallback().mapToInt(mapper);
+    }
+
+    @Override
+    public LongStream mapToLong(ToLongFunction<? super T> mapper) {
+        return fallback().mapToLong(mapper);
+    }
+
+    @Override
+    public DoubleStream mapToDouble(ToDoubleFunction<? super T> mapper) {
+        return fallback().mapToDouble(mapper);
+    }
+
+    @Override
+    public <R> Stream<R> flatMap(Function<? super T, ? extends Stream<? extends R>> mapper) {
+        return fallback().flatMap(mapper);
+    }
+
+    @Override
+    public IntStream flatMapToInt(Function<? super T, ? extends IntStream> mapper) {
+        return fallback().flatMapToInt(mapper);
+    }
+
+    @Override
+    public LongStream flatMapToLong(Function<? super T, ? extends LongStream> mapper) {
+        return fallback().flatMapToLong(mapper);
+    }
+
+    @Override
+    public DoubleStream flatMapToDouble(Function<? super T, ? extends DoubleStream> mapper) {
+        return fallback().flatMapToDouble(mapper);
+    }
+
+    @Override
+    public Stream<T> distinct() {
+        return fallback().distinct();
+    }
+
+    @Override
+    public Stream<T> sorted() {
+        return fallback().sorted();
+    }
+
+    @Override
+    public Stream<T> sorted(Comparator<? super T> comparator) {
+        return fallback().sorted(comparator);
+    }
+
+    @Override
+    public Stream<T> limit(long maxSize) {
+        return fallback().limit(maxSize);
+    }
+
+    @Override
+    public Stream<T> skip(long n) {
+        return fallback().skip(n);
+    }
+
+    @Override
+    public void forEach(Consumer<? super T> action) {
+        Objects.requireNonNull(action);
+        forEachElement(link(), action);
+    }
+
+    @Override
+    public void forEachOrdered(Consumer<? super T> action) {
+        forEach(action);
+    }
+
+    @Override
+    public Object[] toArray() {
+        return toArray(Object[]::new);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <A> A[] toArray(IntFunction<A[]> generator) {
+        IntFunction<?> elements = link();
+        Object[] values = new Object[size];
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            Object e = elements.apply(i);
+            if (e != NONE)
+                values[count++] = e;
+        }
+        A[] array = generator.apply(count);
+        if (array.length != count)
+            throw new IllegalStateException("Array of length " + array.length + " for " + count + " elements");
+        System.arraycopy(values, 0, array, 0, count);
+        return array;
+    }
+
+    @Override
+    public T reduce(T identity, BinaryOperator<T> accumulator) {
+        return reduce(identity, accumulator, accumulator);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Optional<T> reduce(BinaryOperator<T> accumulator) {
+        Objects.requireNonNull(accumulator);
+        IntFunction<?> elements = link();
+        T result = null;
+        boolean found = false;
+        for (int i = 0; i < size; i++) {
+            Object e = elements.apply(i);
+            if (e == NONE)
+                continue;
+            result = found ? accumulator.apply(result, (T) e) : (T) e;
+            found = true;
+        }
+        return found ? Optional.of(result) : Optional.empty();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <U> U reduce(U identity, BiFunction<U, ? super T, U> accumulator, BinaryOperator<U> combiner) {
+        Objects.requireNonNull(accumulator);
+        Objects.requireNonNull(combiner);
+        IntFunction<?> elements = link();
+        U result = identity;
+        for (int i = 0; i < size; i++) {
+            Object e = elements.apply(i);
+            if (e != NONE)
+                result = accumulator.apply(result, (T) e);
+        }
+        return result;
+    }
+
+    @Override
+    public <R> R collect(Supplier<R> supplier, BiConsumer<R, ? super T> accumulator, BiConsumer<R, R> combiner) {
+        Objects.requireNonNull(accumulator);
+        Objects.requireNonNull(combiner);
+        R container = supplier.get();
+        forEachElement(link(), e -> accumulator.accept(container, e));
+        return container;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <R, A> R collect(Collector<? super T, A, R> collector) {
+        A container = collector.supplier().get();
+        BiConsumer<A, ? super T> accumulator = collector.accumulator();
+        forEachElement(link(), e -> accumulator.accept(container, e));
+        return collector.characteristics().contains(Collector.Characteristics.IDENTITY_FINISH) ?
+               (R) container :
+               collector.finisher().apply(container);
+    }
+
+    @Override
+    public Optional<T> min(Comparator<? super T> comparator) {
+        return reduce(BinaryOperator.minBy(comparator));
+    }
+
+    @Override
+    public Optional<T> max(Comparator<? super T> comparator) {
+        return reduce(BinaryOperator.maxBy(comparator));
+    }
+
+    @Override
+    public long count() {
+        IntFunction<?> elements = link();
+        long count = 0L;
+        for (int i = 0; i < size; i++) {
+            if (elements.apply(i) != NONE)
+                count++;
+        }
+        return count;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean anyMatch(Predicate<? super T> predicate) {
+        Objects.requireNonNull(predicate);
+        IntFunction<?> elements = link();
+        for (int i = 0; i < size; i++) {
+            Object e = elements.apply(i);
+            if (e != NONE && predicate.test((T) e))
+                return true;
+        }
+        return false;
+    }
+
+    @Override
+    public boolean allMatch(Predicate<? super T> predicate) {
+        Objects.requireNonNull(predicate);
+        return !anyMatch(predicate.negate());
+    }
+
+    @Override
+    public boolean noneMatch(Predicate<? super T> predicate) {
+        return !anyMatch(predicate);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Optional<T> findFirst() {
+        IntFunction<?> elements = link();
+        for (int i = 0; i < size; i++) {
+            Object e = elements.apply(i);
+            if (e != NONE)
+                return Optional.of((T) e);
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public Optional<T> findAny() {
+        return findFirst();
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return Spliterators.iterator(spliterator());
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Spliterator<T> spliterator() {
+        IntFunction<?> elements = link();
+        if (source != null)
+            return (Spliterator<T>) source.spliterator();
+        return new Spliterators.AbstractSpliterator<T>(size, Spliterator.ORDERED) {
+            private int index;
+
+            @Override
+            public boolean tryAdvance(Consumer<? super T> action) {
+                Objects.requireNonNull(action);
+                while (index < size) {
+                    Object e = elements.apply(index++);
+                    if (e != NONE) {
+                        action.accept((T) e);
+                        return true;
+                    }
+                }
+                return false;
+            }
+        };
+    }
+
+    @Override
+    public boolean isParallel() {
+        return false;
+    }
+
+    @Override
+    public Stream<T> sequential() {
+        return this;
+    }
+
+    @Override
+    public Stream<T> parallel() {
+        return fallback().parallel();
+    }
+
+    @Override
+    public Stream<T> unordered() {
+        return this;
+    }
+
+    @Override
+    public Stream<T> onClose(Runnable closeHandler) {
+        Objects.requireNonNull(closeHandler);
+        if (linked || head.closed)
+            throw new IllegalStateException("stream has already been operated upon or closed");
+        Runnable previous = head.closeHandler;
+        head.closeHandler = previous == null ? closeHandler : () -> {
+            try {
+                previous.run();
+            } catch (Throwable e) {
+                try {
+                    closeHandler.run();
+                } catch (Throwable suppressed) {
+                    e.addSuppressed(suppressed);
+                }
+                throw e;
+            }
+            closeHandler.run();
+        };
+        return this;
+    }
+
+    @Override
+    public void close() {
+        linked = true;
+        if (head.closed)
+            return;
+        head.closed = true;
+        Runnable closeHandler = head.closeHandler;
+        head.closeHandler = null;
+        if (closeHandler != null)
+            closeHandler.run();
+    }
+}
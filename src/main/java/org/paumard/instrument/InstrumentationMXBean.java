@@ -0,0 +1,37 @@
+/*
+ * Copyright (C) 2016 Jos Paumard
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+
+package org.paumard.instrument;
+
+import java.util.Map;
+
+/**
+ * The statistics of the instrumented collections, published over JMX. The
+ * keys of the maps are the type of collection and the operation, for
+ * instance {@code SingletonList.get}, and the latencies are in nanoseconds.
+ */
+public interface InstrumentationMXBean {
+
+    Map<String, Long> getOperationCounts();
+
+    Map<String, Long> getMedianLatencies();
+
+    Map<String, Long> get99thPercentileLatencies();
+
+    void reset();
+}
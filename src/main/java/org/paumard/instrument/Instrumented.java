@@ -0,0 +1,132 @@
+/*
+ * Copyright (C) 2016 Jos Paumard
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+
+package org.paumard.instrument;
+
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.ToLongFunction;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Wraps collections and maps so that the calls to {@code get()},
+ * {@code contains()}, the iterators, {@code forEach()} and the creation of
+ * streams are counted per type of collection, and their durations sampled in
+ * histograms. The statistics are published over JMX under
+ * {@value #OBJECT_NAME}.
+ * <p>
+ * Instrumentation is enabled by the {@value #PROPERTY} system property. When
+ * it is not set, the factory methods return their argument: since
+ * {@link #ENABLED} is a constant, the JIT compiler removes the test, and an
+ * instrumented collection costs nothing more than the collection itself.
+ */
+public final class Instrumented {
+
+    public static final String PROPERTY = "org.paumard.instrument";
+    public static final String OBJECT_NAME = "org.paumard.instrument:type=Instrumentation";
+    public static final boolean ENABLED = Boolean.getBoolean(PROPERTY);
+
+    private static final ConcurrentMap<String, OperationStats> STATS = new ConcurrentHashMap<>();
+
+    static {
+        if (ENABLED) {
+            register();
+        }
+    }
+
+    private Instrumented() {
+    }
+
+    public static <E> List<E> list(List<E> list) {
+        return ENABLED ? new InstrumentedList<>(list, type(list)) : list;
+    }
+
+    public static <E> Set<E> set(Set<E> set) {
+        return ENABLED ? new InstrumentedSet<>(set, type(set)) : set;
+    }
+
+    public static <K, V> Map<K, V> map(Map<K, V> map) {
+        return ENABLED ? new InstrumentedMap<>(map, type(map)) : map;
+    }
+
+    /**
+     * Returns the statistics of each operation, the keys being the type of
+     * collection and the operation, for instance {@code SingletonList.get}.
+     */
+    public static Map<String, OperationStats> statistics() {
+        return Collections.unmodifiableMap(new TreeMap<>(STATS));
+    }
+
+    static OperationStats stats(String type, String operation) {
+        return STATS.computeIfAbsent(type + "." + operation, key -> new OperationStats());
+    }
+
+    // the lambda collections are anonymous classes, named after the interface they implement
+    static String type(Object collection) {
+        Class<?> type = collection.getClass();
+        if (type.isAnonymousClass()) {
+            Class<?>[] interfaces = type.getInterfaces();
+            type = interfaces.length > 0 ? interfaces[0] : type.getSuperclass();
+        }
+        return type.getSimpleName();
+    }
+
+    private static void register() {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(new Bean(), new ObjectName(OBJECT_NAME));
+        } catch (InstanceAlreadyExistsException e) {
+            // registered by another class loader
+        } catch (JMException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static final class Bean implements InstrumentationMXBean {
+
+        public Map<String, Long> getOperationCounts() {
+            return collect(OperationStats::count);
+        }
+
+        public Map<String, Long> getMedianLatencies() {
+            return collect(stats -> stats.latencies().percentile(0.5));
+        }
+
+        public Map<String, Long> get99thPercentileLatencies() {
+            return collect(stats -> stats.latencies().percentile(0.99));
+        }
+
+        public void reset() {
+            STATS.values().forEach(OperationStats::reset);
+        }
+
+        private static Map<String, Long> collect(ToLongFunction<OperationStats> statistic) {
+            Map<String, Long> result = new TreeMap<>();
+            STATS.forEach((name, stats) -> result.put(name, statistic.applyAsLong(stats)));
+            return result;
+        }
+    }
+}
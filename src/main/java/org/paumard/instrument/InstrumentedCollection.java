@@ -0,0 +1,149 @@
+/*
+ * Copyright (C) 2016 Jos Paumard
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+
+package org.paumard.instrument;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+class InstrumentedCollection<E> implements Collection<E> {
+
+    final Collection<E> delegate;
+    final String type;
+    private final OperationStats contains;
+    private final OperationStats iteration;
+    private final OperationStats forEach;
+    private final OperationStats stream;
+
+    InstrumentedCollection(Collection<E> delegate, String type) {
+        this.delegate = delegate;
+        this.type = type;
+        this.contains = Instrumented.stats(type, "contains");
+        this.iteration = Instrumented.stats(type, "iteration");
+        this.forEach = Instrumented.stats(type, "forEach");
+        this.stream = Instrumented.stats(type, "stream");
+    }
+
+    // iterating over an iterator is not timed, only its creation is, so
+    // forEach() has its own stats
+    OperationStats iteration() {
+        return iteration;
+    }
+
+    public int size() {
+        return delegate.size();
+    }
+
+    public boolean isEmpty() {
+        return delegate.isEmpty();
+    }
+
+    public boolean contains(Object o) {
+        long start = contains.start();
+        boolean result = delegate.contains(o);
+        contains.stop(start);
+        return result;
+    }
+
+    public Iterator<E> iterator() {
+        long start = iteration.start();
+        Iterator<E> iterator = delegate.iterator();
+        iteration.stop(start);
+        return iterator;
+    }
+
+    public void forEach(Consumer<? super E> action) {
+        long start = forEach.start();
+        delegate.forEach(action);
+        forEach.stop(start);
+    }
+
+    public Spliterator<E> spliterator() {
+        return delegate.spliterator();
+    }
+
+    public Stream<E> stream() {
+        long start = stream.start();
+        Stream<E> result = delegate.stream();
+        stream.stop(start);
+        return result;
+    }
+
+    public Stream<E> parallelStream() {
+        long start = stream.start();
+        Stream<E> result = delegate.parallelStream();
+        stream.stop(start);
+        return result;
+    }
+
+    public Object[] toArray() {
+        return delegate.toArray();
+    }
+
+    public <T> T[] toArray(T[] a) {
+        return delegate.toArray(a);
+    }
+
+    public boolean add(E e) {
+        return delegate.add(e);
+    }
+
+    public boolean remove(Object o) {
+        return delegate.remove(o);
+    }
+
+    public boolean containsAll(Collection<?> c) {
+        return delegate.containsAll(c);
+    }
+
+    public boolean addAll(Collection<? extends E> c) {
+        return delegate.addAll(c);
+    }
+
+    public boolean removeAll(Collection<?> c) {
+        return delegate.removeAll(c);
+    }
+
+    public boolean removeIf(Predicate<? super E> filter) {
+        return delegate.removeIf(filter);
+    }
+
+    public boolean retainAll(Collection<?> c) {
+        return delegate.retainAll(c);
+    }
+
+    public void clear() {
+        delegate.clear();
+    }
+
+    public boolean equals(Object o) {
+        return o == this || delegate.equals(o);
+    }
+
+    public int hashCode() {
+        return delegate.hashCode();
+    }
+
+    public String toString() {
+        return delegate.toString();
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright (C) 2016 Jos Paumard
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+
+package org.paumard.instrument;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.function.UnaryOperator;
+
+final class InstrumentedList<E> extends InstrumentedCollection<E> implements List<E> {
+
+    private final List<E> list;
+    private final OperationStats get;
+
+    InstrumentedList(List<E> list, String type) {
+        super(list, type);
+        this.list = list;
+        this.get = Instrumented.stats(type, "get");
+    }
+
+    public E get(int index) {
+        long start = get.start();
+        E e = list.get(index);
+        get.stop(start);
+        return e;
+    }
+
+    public ListIterator<E> listIterator() {
+        long start = iteration().start();
+        ListIterator<E> iterator = list.listIterator();
+        iteration().stop(start);
+        return iterator;
+    }
+
+    public ListIterator<E> listIterator(int index) {
+        long start = iteration().start();
+        ListIterator<E> iterator = list.listIterator(index);
+        iteration().stop(start);
+        return iterator;
+    }
+
+    public List<E> subList(int fromIndex, int toIndex) {
+        return new InstrumentedList<>(list.subList(fromIndex, toIndex), type);
+    }
+
+    public int indexOf(Object o) {
+        return list.indexOf(o);
+    }
+
+    public int lastIndexOf(Object o) {
+        return list.lastIndexOf(o);
+    }
+
+    public boolean addAll(int index, Collection<? extends E> c) {
+        return list.addAll(index, c);
+    }
+
+    public E set(int index, E element) {
+        return list.set(index, element);
+    }
+
+    public void add(int index, E element) {
+        list.add(index, element);
+    }
+
+    public E remove(int index) {
+        return list.remove(index);
+    }
+
+    public void replaceAll(UnaryOperator<E> operator) {
+        list.replaceAll(operator);
+    }
+
+    public void sort(Comparator<? super E> c) {
+        list.sort(c);
+    }
+}
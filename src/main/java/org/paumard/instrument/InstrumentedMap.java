@@ -0,0 +1,177 @@
+/*
+ * Copyright (C) 2016 Jos Paumard
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+
+package org.paumard.instrument;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+final class InstrumentedMap<K, V> implements Map<K, V> {
+
+    private final Map<K, V> delegate;
+    private final String type;
+    private final OperationStats get;
+    private final OperationStats contains;
+    private final OperationStats forEach;
+    private Set<K> keySet;
+    private Collection<V> values;
+    private Set<Entry<K, V>> entrySet;
+
+    InstrumentedMap(Map<K, V> delegate, String type) {
+        this.delegate = delegate;
+        this.type = type;
+        this.get = Instrumented.stats(type, "get");
+        this.contains = Instrumented.stats(type, "contains");
+        this.forEach = Instrumented.stats(type, "forEach");
+    }
+
+    public V get(Object key) {
+        long start = get.start();
+        V value = delegate.get(key);
+        get.stop(start);
+        return value;
+    }
+
+    public V getOrDefault(Object key, V defaultValue) {
+        long start = get.start();
+        V value = delegate.getOrDefault(key, defaultValue);
+        get.stop(start);
+        return value;
+    }
+
+    public boolean containsKey(Object key) {
+        long start = contains.start();
+        boolean result = delegate.containsKey(key);
+        contains.stop(start);
+        return result;
+    }
+
+    public boolean containsValue(Object value) {
+        long start = contains.start();
+        boolean result = delegate.containsValue(value);
+        contains.stop(start);
+        return result;
+    }
+
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        long start = forEach.start();
+        delegate.forEach(action);
+        forEach.stop(start);
+    }
+
+    // the views are counted as collections of their own, for instance TwoElementsMap.keySet
+    public Set<K> keySet() {
+        Set<K> keySet = this.keySet;
+        if (keySet == null) {
+            this.keySet = keySet = new InstrumentedSet<>(delegate.keySet(), type + ".keySet");
+        }
+        return keySet;
+    }
+
+    public Collection<V> values() {
+        Collection<V> values = this.values;
+        if (values == null) {
+            this.values = values = new InstrumentedCollection<>(delegate.values(), type + ".values");
+        }
+        return values;
+    }
+
+    public Set<Entry<K, V>> entrySet() {
+        Set<Entry<K, V>> entrySet = this.entrySet;
+        if (entrySet == null) {
+            this.entrySet = entrySet = new InstrumentedSet<>(delegate.entrySet(), type + ".entrySet");
+        }
+        return entrySet;
+    }
+
+    public int size() {
+        return delegate.size();
+    }
+
+    public boolean isEmpty() {
+        return delegate.isEmpty();
+    }
+
+    public V put(K key, V value) {
+        return delegate.put(key, value);
+    }
+
+    public V remove(Object key) {
+        return delegate.remove(key);
+    }
+
+    public void putAll(Map<? extends K, ? extends V> m) {
+        delegate.putAll(m);
+    }
+
+    public void clear() {
+        delegate.clear();
+    }
+
+    public void replaceAll(BiFunction<? super K, ? super V, ? extends V> function) {
+        delegate.replaceAll(function);
+    }
+
+    public V putIfAbsent(K key, V value) {
+        return delegate.putIfAbsent(key, value);
+    }
+
+    public boolean remove(Object key, Object value) {
+        return delegate.remove(key, value);
+    }
+
+    public boolean replace(K key, V oldValue, V newValue) {
+        return delegate.replace(key, oldValue, newValue);
+    }
+
+    public V replace(K key, V value) {
+        return delegate.replace(key, value);
+    }
+
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+        return delegate.computeIfAbsent(key, mappingFunction);
+    }
+
+    public V computeIfPresent(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+        return delegate.computeIfPresent(key, remappingFunction);
+    }
+
+    public V compute(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+        return delegate.compute(key, remappingFunction);
+    }
+
+    public V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+        return delegate.merge(key, value, remappingFunction);
+    }
+
+    public boolean equals(Object o) {
+        return o == this || delegate.equals(o);
+    }
+
+    public int hashCode() {
+        return delegate.hashCode();
+    }
+
+    public String toString() {
+        return delegate.toString();
+    }
+}
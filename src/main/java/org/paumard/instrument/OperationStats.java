@@ -0,0 +1,67 @@
+/*
+ * Copyright (C) 2016 Jos Paumard
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+
+package org.paumard.instrument;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The statistics of one operation on one type of collection: every call is
+ * counted in a striped counter, and the duration of one call in
+ * {@value #SAMPLING_RATE} is recorded in a histogram, so that timing does not
+ * cost more than the operations it measures.
+ */
+public final class OperationStats {
+
+    static final int SAMPLING_RATE = 64;
+    static final long NOT_SAMPLED = Long.MIN_VALUE;
+
+    private final LongAdder count = new LongAdder();
+    private final LatencyHistogram latencies = new LatencyHistogram();
+
+    OperationStats() {
+    }
+
+    /**
+     * Counts a call, and returns its start time if it is sampled.
+     */
+    long start() {
+        count.increment();
+        return ThreadLocalRandom.current().nextInt(SAMPLING_RATE) == 0 ? System.nanoTime() : NOT_SAMPLED;
+    }
+
+    void stop(long start) {
+        if (start != NOT_SAMPLED) {
+            latencies.record(System.nanoTime() - start);
+        }
+    }
+
+    public long count() {
+        return count.sum();
+    }
+
+    public LatencyHistogram latencies() {
+        return latencies;
+    }
+
+    void reset() {
+        count.reset();
+        latencies.reset();
+    }
+}
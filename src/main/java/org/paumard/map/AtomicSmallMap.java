@@ -0,0 +1,229 @@
+/*
+ * Copyright (C) 2016 Jos Paumard
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+
+package org.paumard.map;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.function.BiConsumer;
+
+/**
+ * A concurrent map that holds an immutable snapshot of its entries in a
+ * single volatile field: an empty map, then a {@link SingleElementMap}, a
+ * {@link TwoElementsMap} and a {@link HamtMap} as keys are added. A read is
+ * one volatile read followed by a lookup in the snapshot. An update builds
+ * a new snapshot with {@code with()} or {@code without()}, and replaces the
+ * current one with a compare-and-set, until no other thread has replaced it
+ * in the meantime.
+ * <p>
+ * It is meant for maps that hold a few entries and that are mostly read:
+ * each update copies the snapshot, or the path to the key in a
+ * {@code HamtMap}. The iterators of its views read the snapshot of the time
+ * they were created, and never throw a
+ * {@code ConcurrentModificationException}.
+ */
+public final class AtomicSmallMap<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V> {
+
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<AtomicSmallMap, PersistentMap> SNAPSHOT =
+            AtomicReferenceFieldUpdater.newUpdater(AtomicSmallMap.class, PersistentMap.class, "snapshot");
+
+    private volatile PersistentMap<K, V> snapshot = HamtMap.empty();
+
+    /**
+     * Returns the current entries of this map, as an immutable map.
+     */
+    public PersistentMap<K, V> snapshot() {
+        return snapshot;
+    }
+
+    private boolean compareAndSet(PersistentMap<K, V> expected, PersistentMap<K, V> update) {
+        return expected == update || SNAPSHOT.compareAndSet(this, expected, update);
+    }
+
+    public int size() {
+        return snapshot.size();
+    }
+
+    public boolean isEmpty() {
+        return snapshot.isEmpty();
+    }
+
+    public V get(Object key) {
+        return snapshot.get(Objects.requireNonNull(key));
+    }
+
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    public boolean containsValue(Object value) {
+        return snapshot.containsValue(Objects.requireNonNull(value));
+    }
+
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        snapshot.forEach(action);
+    }
+
+    public V put(K key, V value) {
+        Objects.requireNonNull(key);
+        Objects.requireNonNull(value);
+        while (true) {
+            PersistentMap<K, V> current = snapshot;
+            if (compareAndSet(current, current.with(key, value)))
+                return current.get(key);
+        }
+    }
+
+    public V putIfAbsent(K key, V value) {
+        Objects.requireNonNull(key);
+        Objects.requireNonNull(value);
+        while (true) {
+            PersistentMap<K, V> current = snapshot;
+            V previous = current.get(key);
+            if (previous != null)
+                return previous;
+            if (compareAndSet(current, current.with(key, value)))
+                return null;
+        }
+    }
+
+    public V remove(Object key) {
+        Objects.requireNonNull(key);
+        while (true) {
+            PersistentMap<K, V> current = snapshot;
+            V previous = current.get(key);
+            if (previous == null)
+                return null;
+            if (compareAndSet(current, current.without(key)))
+                return previous;
+        }
+    }
+
+    public boolean remove(Object key, Object value) {
+        Objects.requireNonNull(key);
+        if (value == null)
+            return false;
+        while (true) {
+            PersistentMap<K, V> current = snapshot;
+            if (!value.equals(current.get(key)))
+                return false;
+            if (compareAndSet(current, current.without(key)))
+                return true;
+        }
+    }
+
+    public V replace(K key, V value) {
+        Objects.requireNonNull(key);
+        Objects.requireNonNull(value);
+        while (true) {
+            PersistentMap<K, V> current = snapshot;
+            V previous = current.get(key);
+            if (previous == null)
+                return null;
+            if (compareAndSet(current, current.with(key, value)))
+                return previous;
+        }
+    }
+
+    public boolean replace(K key, V oldValue, V newValue) {
+        Objects.requireNonNull(key);
+        Objects.requireNonNull(oldValue);
+        Objects.requireNonNull(newValue);
+        while (true) {
+            PersistentMap<K, V> current = snapshot;
+            if (!oldValue.equals(current.get(key)))
+                return false;
+            if (compareAndSet(current, current.with(key, newValue)))
+                return true;
+        }
+    }
+
+    public void putAll(Map<? extends K, ? extends V> m) {
+        m.forEach(this::put);
+    }
+
+    public void clear() {
+        snapshot = HamtMap.empty();
+    }
+
+    public Set<Map.Entry<K, V>> entrySet() {
+        return new AbstractSet<Map.Entry<K, V>>() {
+            public Iterator<Map.Entry<K, V>> iterator() {
+                Iterator<Map.Entry<K, V>> iterator = snapshot.entrySet().iterator();
+                return new Iterator<Map.Entry<K, V>>() {
+                    private Map.Entry<K, V> last;
+
+                    public boolean hasNext() {
+                        return iterator.hasNext();
+                    }
+
+                    public Map.Entry<K, V> next() {
+                        return last = iterator.next();
+                    }
+
+                    public void remove() {
+                        if (last == null)
+                            throw new IllegalStateException();
+                        AtomicSmallMap.this.remove(last.getKey(), last.getValue());
+                        last = null;
+                    }
+                };
+            }
+
+            public int size() {
+                return AtomicSmallMap.this.size();
+            }
+
+            public boolean contains(Object o) {
+                if (!(o instanceof Map.Entry))
+                    return false;
+                Map.Entry<?, ?> entry = (Map.Entry<?, ?>) o;
+                if (entry.getKey() == null)
+                    return false;
+                Object value = snapshot.get(entry.getKey());
+                return value != null && value.equals(entry.getValue());
+            }
+
+            public boolean remove(Object o) {
+                if (!(o instanceof Map.Entry))
+                    return false;
+                Map.Entry<?, ?> entry = (Map.Entry<?, ?>) o;
+                return AtomicSmallMap.this.remove(entry.getKey(), entry.getValue());
+            }
+
+            public void clear() {
+                AtomicSmallMap.this.clear();
+            }
+        };
+    }
+
+    public int hashCode() {
+        return snapshot.hashCode();
+    }
+
+    public boolean equals(Object o) {
+        return o == this || snapshot.equals(o);
+    }
+}
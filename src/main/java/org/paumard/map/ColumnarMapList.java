@@ -0,0 +1,168 @@
+/*
+ * Copyright (C) 2016 Jos Paumard
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+
+package org.paumard.map;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.paumard.collection.IndexedList;
+import org.paumard.collection.SingletonList;
+import org.paumard.collection.TwoElementsList;
+
+/**
+ * An immutable list of maps that all have the same one or two keys. The keys
+ * are stored once for the whole list, and the values in one array per key:
+ * a row only costs its values. {@code get(i)} returns a view of the row i,
+ * that is a {@link SingleElementMap} or a {@link TwoElementsMap}, and
+ * {@code column(key)} returns the values bound to a key as a list that reads
+ * the array of this key, so that a stream on a column does not build the
+ * maps of the rows.
+ * <p>
+ * The elements of {@code stream()} are the rows, so it still builds the view
+ * of each row it reaches, reading its values from the columns: only the
+ * stream of a column scans an array without building any map. A scan over
+ * the values of a key should use {@code column(key).stream()}.
+ */
+public interface ColumnarMapList<K, V> extends IndexedList<Map<K, V>> {
+
+    /**
+     * Takes the keys of the first map of the collection, that all the
+     * other maps must have.
+     */
+    static <K, V> ColumnarMapList<K, V> copyOf(Collection<? extends Map<K, V>> rows) {
+        Iterator<? extends Map<K, V>> iterator = rows.iterator();
+        if (!iterator.hasNext())
+            throw new IllegalArgumentException("No row to take the keys from");
+        Iterator<K> keys = iterator.next().keySet().iterator();
+        if (!keys.hasNext())
+            throw new IllegalArgumentException("Rows must have one or two keys, not 0");
+        K key1 = keys.next();
+        Builder<K, V> builder = keys.hasNext() ?
+                builder(rows.size(), key1, keys.next()) :
+                builder(rows.size(), key1);
+        rows.forEach(builder::add);
+        return builder.build();
+    }
+
+    @SafeVarargs
+    static <K, V> Builder<K, V> builder(int capacity, K... keys) {
+        if (keys.length == 1)
+            return new Builder<>(capacity, SingletonList.of(keys[0]));
+        if (keys.length == 2)
+            return new Builder<>(capacity, TwoElementsList.of(keys[0], keys[1]));
+        throw new IllegalArgumentException("Rows must have one or two keys, not " + keys.length);
+    }
+
+    /**
+     * Returns the keys of the maps of this list.
+     */
+    List<K> keys();
+
+    /**
+     * Returns the value bound to the key of the given index in the map of
+     * the given row.
+     */
+    V valueAt(int row, int column);
+
+    /**
+     * Returns the values bound to the given key, in the order of the rows.
+     */
+    IndexedList<V> column(Object key);
+
+    default Map<K, V> apply(int row) {
+        return keys().size() == 1 ?
+               ColumnarTables.singleElementRow(this, row) :
+               ColumnarTables.twoElementsRow(this, row);
+    }
+
+    /**
+     * Adds the rows one by one to arrays that grow as needed, one array per
+     * key.
+     */
+    final class Builder<K, V> {
+
+        private final List<K> keys;
+        private Object[][] columns;
+        private int size;
+        private boolean built;
+
+        private Builder(int capacity, List<K> keys) {
+            if (capacity < 0)
+                throw new IllegalArgumentException("Negative capacity: " + capacity);
+            if (keys.size() == 2 && keys.get(0).equals(keys.get(1)))
+                throw new IllegalArgumentException("duplicate keys");
+            this.keys = keys;
+            this.columns = new Object[keys.size()][capacity];
+        }
+
+        public Builder<K, V> add(Map<? extends K, ? extends V> row) {
+            if (row.size() != keys.size())
+                throw new IllegalArgumentException("Row of " + row.size() + " keys, expecting " + keys);
+            Object[] values = new Object[keys.size()];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = row.get(keys.get(i));
+                if (values[i] == null)
+                    throw new IllegalArgumentException("Missing key in row: " + keys.get(i));
+            }
+            return addValues(values);
+        }
+
+        /**
+         * Adds a row given by its values, in the order of the keys.
+         */
+        @SafeVarargs
+        public final Builder<K, V> addRow(V... values) {
+            if (values.length != keys.size())
+                throw new IllegalArgumentException("Row of " + values.length + " values, expecting " + keys.size());
+            Object[] row = new Object[values.length];
+            for (int i = 0; i < values.length; i++) {
+                row[i] = Objects.requireNonNull(values[i]);
+            }
+            return addValues(row);
+        }
+
+        private Builder<K, V> addValues(Object[] values) {
+            if (built)
+                throw new IllegalStateException("List already built");
+            if (size == columns[0].length) {
+                int capacity = Math.max(2 * size, 8);
+                for (int i = 0; i < columns.length; i++) {
+                    columns[i] = Arrays.copyOf(columns[i], capacity);
+                }
+            }
+            for (int i = 0; i < columns.length; i++) {
+                columns[i][size] = values[i];
+            }
+            size++;
+            return this;
+        }
+
+        public ColumnarMapList<K, V> build() {
+            built = true;
+            for (int i = 0; i < columns.length; i++) {
+                columns[i] = Arrays.copyOf(columns[i], size);
+            }
+            return ColumnarTables.columnarMapList(keys, columns);
+        }
+    }
+}
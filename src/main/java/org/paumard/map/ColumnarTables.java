@@ -0,0 +1,196 @@
+/*
+ * Copyright (C) 2016 Jos Paumard
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+
+package org.paumard.map;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+import org.paumard.collection.CollectionContracts;
+import org.paumard.collection.IndexedList;
+import org.paumard.serialization.SerializationProxy;
+
+/**
+ * The columnar map list and the views of its rows and columns. A row is a
+ * map that only holds the list and the index of the row, and reads its
+ * keys and values from the list.
+ */
+final class ColumnarTables {
+
+    private ColumnarTables() {
+    }
+
+    static <K, V> ColumnarMapList<K, V> columnarMapList(List<K> keys, Object[][] columns) {
+        int size = columns[0].length;
+        return new ColumnarMapList<K, V>() {
+            private int hashCode;
+
+            public List<K> keys() {
+                return keys;
+            }
+
+            @SuppressWarnings("unchecked")
+            public V valueAt(int row, int column) {
+                return (V) columns[column][row];
+            }
+
+            public IndexedList<V> column(Object key) {
+                int column = keys.indexOf(key);
+                if (column < 0)
+                    throw new IllegalArgumentException("Unknown key: " + key);
+                return ColumnarTables.column(columns[column]);
+            }
+
+            public int size() {
+                return size;
+            }
+
+            public int hashCode() {
+                int h = hashCode;
+                if (h == 0) {
+                    hashCode = h = CollectionContracts.listHashCode(this);
+                }
+                return h;
+            }
+
+            public boolean equals(Object o) {
+                return CollectionContracts.listEquals(this, o);
+            }
+        };
+    }
+
+    static <V> IndexedList<V> column(Object[] values) {
+        return new IndexedList<V>() {
+            @SuppressWarnings("unchecked")
+            public V apply(int i) {
+                return (V) values[i];
+            }
+
+            public int size() {
+                return values.length;
+            }
+
+            public int hashCode() {
+                return CollectionContracts.listHashCode(this);
+            }
+
+            public boolean equals(Object o) {
+                return CollectionContracts.listEquals(this, o);
+            }
+        };
+    }
+
+    static <K, V> SingleElementMap<K, V> singleElementRow(ColumnarMapList<K, V> list, int row) {
+        return new SingleElementMap<K, V>() {
+            public Map.Entry<K, V> get() {
+                return KeyValueEntry.of(list.keys().get(0), list.valueAt(row, 0));
+            }
+
+            public V get(Object key) {
+                Objects.requireNonNull(key);
+                return key.equals(list.keys().get(0)) ? list.valueAt(row, 0) : null;
+            }
+
+            public boolean containsValue(Object value) {
+                Objects.requireNonNull(value);
+                return value.equals(list.valueAt(row, 0));
+            }
+
+            public void forEach(BiConsumer<? super K, ? super V> action) {
+                Objects.requireNonNull(action);
+                action.accept(list.keys().get(0), list.valueAt(row, 0));
+            }
+
+            public int hashCode() {
+                return list.keys().get(0).hashCode() ^ list.valueAt(row, 0).hashCode();
+            }
+
+            public boolean equals(Object o) {
+                return o == this ||
+                       o instanceof Map && ((Map<?, ?>) o).size() == 1 &&
+                       MapContracts.hasEntry((Map<?, ?>) o, list.keys().get(0), list.valueAt(row, 0));
+            }
+
+            private Object writeReplace() {
+                return new SerializationProxy(this);
+            }
+        };
+    }
+
+    static <K, V> TwoElementsMap<K, V> twoElementsRow(ColumnarMapList<K, V> list, int row) {
+        return new TwoElementsMap<K, V>() {
+            public Map.Entry<K, V> apply(int i) {
+                return KeyValueEntry.of(list.keys().get(i), list.valueAt(row, i));
+            }
+
+            public V get(Object key) {
+                Objects.requireNonNull(key);
+                List<K> keys = list.keys();
+                return key.equals(keys.get(0)) ? list.valueAt(row, 0) :
+                       key.equals(keys.get(1)) ? list.valueAt(row, 1) :
+                       null;
+            }
+
+            public boolean containsValue(Object value) {
+                Objects.requireNonNull(value);
+                return value.equals(list.valueAt(row, 0)) || value.equals(list.valueAt(row, 1));
+            }
+
+            public void forEach(BiConsumer<? super K, ? super V> action) {
+                Objects.requireNonNull(action);
+                List<K> keys = list.keys();
+                action.accept(keys.get(0), list.valueAt(row, 0));
+                action.accept(keys.get(1), list.valueAt(row, 1));
+            }
+
+            public Set<K> keySet() {
+                return MapViews.twoElementsSet(list.keys()::get);
+            }
+
+            public Collection<V> values() {
+                return MapViews.twoElementsList(i -> list.valueAt(row, i));
+            }
+
+            public int hashCode() {
+                List<K> keys = list.keys();
+                return (keys.get(0).hashCode() ^ list.valueAt(row, 0).hashCode()) +
+                       (keys.get(1).hashCode() ^ list.valueAt(row, 1).hashCode());
+            }
+
+            public boolean equals(Object o) {
+                if (o == this)
+                    return true;
+                if (!(o instanceof Map))
+                    return false;
+                Map<?, ?> other = (Map<?, ?>) o;
+                List<K> keys = list.keys();
+                return other.size() == 2 &&
+                       MapContracts.hasEntry(other, keys.get(0), list.valueAt(row, 0)) &&
+                       MapContracts.hasEntry(other, keys.get(1), list.valueAt(row, 1));
+            }
+
+            private Object writeReplace() {
+                return new SerializationProxy(this);
+            }
+        };
+    }
+}
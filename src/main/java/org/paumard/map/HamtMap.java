@@ -0,0 +1,564 @@
+/*
+ * Copyright (C) 2016 Jos Paumard
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+
+package org.paumard.map;
+
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.paumard.collection.LambdaCollections;
+
+/**
+ * A persistent map of any size, stored in a hash array mapped trie.
+ * <p>
+ * Each node of the trie is indexed by five bits of the hash code of the keys:
+ * a bitmap tells which of its 32 slots are used, and the used slots are
+ * stored in a compact array, along with the hash codes of their keys. A slot
+ * holds an entry, a sub-node for the next five bits, or, for keys that have
+ * the same hash code, a small map of these keys. {@code with()} and
+ * {@code without()} copy the path from the root to the key, and share the
+ * rest of the trie.
+ * <p>
+ * The spliterator of the views splits the trie by sub-tree, so that a
+ * parallel stream processes each sub-tree in its own thread.
+ */
+public final class HamtMap<K, V> extends AbstractMap<K, V> implements PersistentMap<K, V> {
+
+    private static final int BITS = 5;
+    private static final int MASK = (1 << BITS) - 1;
+
+    private static final HamtMap<?, ?> EMPTY = new HamtMap<>(new Node(0, new Object[0], new int[0], 0));
+
+    private final Node root;
+    private int hashCode;
+
+    private HamtMap(Node root) {
+        this.root = root;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <K, V> HamtMap<K, V> empty() {
+        return (HamtMap<K, V>) EMPTY;
+    }
+
+    /**
+     * A map of two entries or less gives a {@link TwoElementsMap} or a
+     * {@link SingleElementMap}, as {@link #with(Object, Object)} does.
+     */
+    public static <K, V> PersistentMap<K, V> copyOf(Map<? extends K, ? extends V> map) {
+        HamtMap<K, V> result = empty();
+        for (Map.Entry<? extends K, ? extends V> entry : map.entrySet()) {
+            result = result.plus(entry.getKey(), entry.getValue());
+        }
+        return of(result.root);
+    }
+
+    /**
+     * A map of one entry is a {@link SingleElementMap}, so that a map has the
+     * same representation whether it was built by {@code with()} or by
+     * {@code without()}.
+     */
+    public PersistentMap<K, V> with(K key, V value) {
+        HamtMap<K, V> map = plus(key, value);
+        return map == this ? this : of(map.root);
+    }
+
+    // adds the key to the trie, whatever the size of the map
+    HamtMap<K, V> plus(K key, V value) {
+        Objects.requireNonNull(key);
+        Objects.requireNonNull(value);
+        Node newRoot = root.with(0, key.hashCode(), key, value);
+        return newRoot == root ? this : new HamtMap<>(newRoot);
+    }
+
+    /**
+     * A map of two entries becomes a {@link TwoElementsMap}, and a map of one
+     * entry a {@link SingleElementMap}.
+     */
+    public PersistentMap<K, V> without(Object key) {
+        Objects.requireNonNull(key);
+        Node newRoot = root.without(0, key.hashCode(), key);
+        if (newRoot == root)
+            return this;
+        if (newRoot == null)
+            return empty();
+        return of(newRoot);
+    }
+
+    private static <K, V> PersistentMap<K, V> of(Node root) {
+        if (root.size == 0)
+            return empty();
+        if (root.size <= 2) {
+            Iterator<Map.Entry<K, V>> iterator = new NodeIterator<>(root.children, 0, root.children.length, Function.identity());
+            Map.Entry<K, V> entry1 = iterator.next();
+            if (!iterator.hasNext())
+                return SingleElementMap.of(entry1.getKey(), entry1.getValue());
+            Map.Entry<K, V> entry2 = iterator.next();
+            return TwoElementsMap.of(entry1.getKey(), entry1.getValue(), entry2.getKey(), entry2.getValue());
+        }
+        return new HamtMap<>(root);
+    }
+
+    public int size() {
+        return root.size;
+    }
+
+    public boolean isEmpty() {
+        return root.size == 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V get(Object key) {
+        if (key == null)
+            return null;
+        return (V) root.get(0, key.hashCode(), key);
+    }
+
+    public V getOrDefault(Object key, V defaultValue) {
+        V value = get(key);
+        return value != null ? value : defaultValue;
+    }
+
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        Objects.requireNonNull(action);
+        forEachEntry(root.children, 0, root.children.length, (Map.Entry<K, V> entry) -> action.accept(entry.getKey(), entry.getValue()));
+    }
+
+    public Set<Map.Entry<K, V>> entrySet() {
+        return new AbstractSet<Map.Entry<K, V>>() {
+            public Iterator<Map.Entry<K, V>> iterator() {
+                return new NodeIterator<>(root.children, 0, root.children.length, Function.identity());
+            }
+
+            public Spliterator<Map.Entry<K, V>> spliterator() {
+                return new HamtSpliterator<>(root.children, 0, root.children.length, Function.identity());
+            }
+
+            public int size() {
+                return root.size;
+            }
+
+            public boolean contains(Object o) {
+                if (!(o instanceof Map.Entry))
+                    return false;
+                Map.Entry<?, ?> entry = (Map.Entry<?, ?>) o;
+                V value = get(entry.getKey());
+                return value != null && value.equals(entry.getValue());
+            }
+        };
+    }
+
+    public Set<K> keySet() {
+        return new AbstractSet<K>() {
+            public Iterator<K> iterator() {
+                return new NodeIterator<>(root.children, 0, root.children.length, Map.Entry<K, V>::getKey);
+            }
+
+            public Spliterator<K> spliterator() {
+                return new HamtSpliterator<>(root.children, 0, root.children.length, Map.Entry<K, V>::getKey);
+            }
+
+            public int size() {
+                return root.size;
+            }
+
+            public boolean contains(Object o) {
+                return containsKey(o);
+            }
+        };
+    }
+
+    public Collection<V> values() {
+        return new AbstractCollection<V>() {
+            public Iterator<V> iterator() {
+                return new NodeIterator<>(root.children, 0, root.children.length, Map.Entry<K, V>::getValue);
+            }
+
+            public Spliterator<V> spliterator() {
+                return new HamtSpliterator<>(root.children, 0, root.children.length, Map.Entry<K, V>::getValue);
+            }
+
+            public int size() {
+                return root.size;
+            }
+        };
+    }
+
+    public int hashCode() {
+        int h = hashCode;
+        if (h == 0) {
+            hashCode = h = super.hashCode();
+        }
+        return h;
+    }
+
+    // the size of an element of a node: an entry, a sub-node or a map of colliding keys
+    private static int size(Object child) {
+        return child instanceof Node ? ((Node) child).size :
+               child instanceof Map.Entry ? 1 :
+               ((Map<?, ?>) child).size();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <K, V> void forEachEntry(Object[] children, int from, int to, Consumer<Map.Entry<K, V>> action) {
+        for (int i = from; i < to; i++) {
+            Object child = children[i];
+            if (child instanceof Node) {
+                Object[] grandChildren = ((Node) child).children;
+                forEachEntry(grandChildren, 0, grandChildren.length, action);
+            } else if (child instanceof Map.Entry) {
+                action.accept((Map.Entry<K, V>) child);
+            } else {
+                ((Map<K, V>) child).entrySet().forEach(action);
+            }
+        }
+    }
+
+    private static final class Node {
+
+        private final int bitmap;
+        private final Object[] children;
+        private final int[] hashes;
+        private final int size;
+
+        private Node(int bitmap, Object[] children, int[] hashes, int size) {
+            this.bitmap = bitmap;
+            this.children = children;
+            this.hashes = hashes;
+            this.size = size;
+        }
+
+        private static int bit(int shift, int hash) {
+            return 1 << ((hash >>> shift) & MASK);
+        }
+
+        private int index(int bit) {
+            return Integer.bitCount(bitmap & (bit - 1));
+        }
+
+        Object get(int shift, int hash, Object key) {
+            int bit = bit(shift, hash);
+            if ((bitmap & bit) == 0)
+                return null;
+            int index = index(bit);
+            Object child = children[index];
+            if (child instanceof Node)
+                return ((Node) child).get(shift + BITS, hash, key);
+            if (hashes[index] != hash)
+                return null;
+            if (child instanceof Map.Entry) {
+                Map.Entry<?, ?> entry = (Map.Entry<?, ?>) child;
+                return KeyValueEntry.hasKey(entry, key, hash) ? entry.getValue() : null;
+            }
+            return ((Map<?, ?>) child).get(key);
+        }
+
+        Node with(int shift, int hash, Object key, Object value) {
+            int bit = bit(shift, hash);
+            int index = index(bit);
+            if ((bitmap & bit) == 0) {
+                Object[] newChildren = new Object[children.length + 1];
+                int[] newHashes = new int[hashes.length + 1];
+                System.arraycopy(children, 0, newChildren, 0, index);
+                System.arraycopy(hashes, 0, newHashes, 0, index);
+                newChildren[index] = KeyValueEntry.of(key, value);
+                newHashes[index] = hash;
+                System.arraycopy(children, index, newChildren, index + 1, children.length - index);
+                System.arraycopy(hashes, index, newHashes, index + 1, hashes.length - index);
+                return new Node(bitmap | bit, newChildren, newHashes, size + 1);
+            }
+            Object child = children[index];
+            Object newChild;
+            if (child instanceof Node) {
+                newChild = ((Node) child).with(shift + BITS, hash, key, value);
+            } else if (hashes[index] == hash) {
+                newChild = withCollision(child, key, value);
+            } else {
+                newChild = merge(shift + BITS, child, hashes[index], KeyValueEntry.of(key, value), hash);
+            }
+            if (newChild == child)
+                return this;
+            Object[] newChildren = children.clone();
+            newChildren[index] = newChild;
+            int[] newHashes = hashes;
+            if (newChild instanceof Node && !(child instanceof Node)) {
+                newHashes = hashes.clone();
+                newHashes[index] = 0;
+            }
+            return new Node(bitmap, newChildren, newHashes, size - size(child) + size(newChild));
+        }
+
+        // returns null if this node becomes empty
+        Node without(int shift, int hash, Object key) {
+            int bit = bit(shift, hash);
+            if ((bitmap & bit) == 0)
+                return this;
+            int index = index(bit);
+            Object child = children[index];
+            Object newChild;
+            int newHash = hashes[index];
+            if (child instanceof Node) {
+                Node node = ((Node) child).without(shift + BITS, hash, key);
+                if (node != null && node.children.length == 1 && !(node.children[0] instanceof Node)) {
+                    // a sub-node left with a single entry is replaced by this entry
+                    newChild = node.children[0];
+                    newHash = node.hashes[0];
+                } else {
+                    newChild = node;
+                }
+            } else if (hashes[index] != hash) {
+                return this;
+            } else if (child instanceof Map.Entry) {
+                newChild = ((Map.Entry<?, ?>) child).getKey().equals(key) ? null : child;
+            } else {
+                newChild = withoutCollision((Map<?, ?>) child, key);
+            }
+            if (newChild == child)
+                return this;
+            if (newChild == null) {
+                if (children.length == 1)
+                    return null;
+                Object[] newChildren = new Object[children.length - 1];
+                int[] newHashes = new int[hashes.length - 1];
+                System.arraycopy(children, 0, newChildren, 0, index);
+                System.arraycopy(hashes, 0, newHashes, 0, index);
+                System.arraycopy(children, index + 1, newChildren, index, children.length - index - 1);
+                System.arraycopy(hashes, index + 1, newHashes, index, hashes.length - index - 1);
+                return new Node(bitmap & ~bit, newChildren, newHashes, size - 1);
+            }
+            Object[] newChildren = children.clone();
+            newChildren[index] = newChild;
+            int[] newHashes = hashes;
+            if (newHash != hashes[index]) {
+                newHashes = hashes.clone();
+                newHashes[index] = newHash;
+            }
+            return new Node(bitmap, newChildren, newHashes, size - 1);
+        }
+
+        // two elements whose keys have different hash codes, placed in a new node
+        private static Node merge(int shift, Object child1, int hash1, Object child2, int hash2) {
+            int bit1 = bit(shift, hash1);
+            int bit2 = bit(shift, hash2);
+            int size = size(child1) + size(child2);
+            if (bit1 == bit2) {
+                Node node = merge(shift + BITS, child1, hash1, child2, hash2);
+                return new Node(bit1, new Object[] { node }, new int[] { 0 }, size);
+            }
+            return Integer.compareUnsigned(bit1, bit2) < 0 ?
+                   new Node(bit1 | bit2, new Object[] { child1, child2 }, new int[] { hash1, hash2 }, size) :
+                   new Node(bit1 | bit2, new Object[] { child2, child1 }, new int[] { hash2, hash1 }, size);
+        }
+
+        // child is an entry, or a map of colliding keys, whose keys have the hash code of the key
+        @SuppressWarnings("unchecked")
+        private static Object withCollision(Object child, Object key, Object value) {
+            List<Map.Entry<?, ?>> entries = entries(child);
+            boolean replaced = false;
+            for (int i = 0; i < entries.size(); i++) {
+                Map.Entry<?, ?> entry = entries.get(i);
+                if (entry.getKey().equals(key)) {
+                    if (entry.getValue().equals(value))
+                        return child;
+                    entries.set(i, KeyValueEntry.of(key, value));
+                    replaced = true;
+                }
+            }
+            if (!replaced)
+                entries.add(KeyValueEntry.of(key, value));
+            return entries.size() == 1 ? entries.get(0) : LambdaCollections.mapOfEntries(entries.toArray(new Map.Entry<?, ?>[0]));
+        }
+
+        @SuppressWarnings("unchecked")
+        private static Object withoutCollision(Map<?, ?> map, Object key) {
+            if (!map.containsKey(key))
+                return map;
+            List<Map.Entry<?, ?>> entries = entries(map);
+            entries.removeIf(entry -> entry.getKey().equals(key));
+            return entries.size() == 1 ? entries.get(0) : LambdaCollections.mapOfEntries(entries.toArray(new Map.Entry<?, ?>[0]));
+        }
+
+        private static List<Map.Entry<?, ?>> entries(Object child) {
+            List<Map.Entry<?, ?>> entries = new ArrayList<>();
+            if (child instanceof Map.Entry)
+                entries.add((Map.Entry<?, ?>) child);
+            else
+                entries.addAll(((Map<?, ?>) child).entrySet());
+            return entries;
+        }
+    }
+
+    // walks the elements of a range of children, depth first
+    private static final class NodeIterator<K, V, T> implements Iterator<T> {
+
+        private final Function<Map.Entry<K, V>, T> mapper;
+        private Object[][] stack = new Object[7][];
+        private int[] positions = new int[7];
+        private int[] ends = new int[7];
+        private int depth;
+        private Iterator<Map.Entry<K, V>> collisions;
+        private Map.Entry<K, V> next;
+
+        NodeIterator(Object[] children, int from, int to, Function<Map.Entry<K, V>, T> mapper) {
+            this.mapper = mapper;
+            this.stack[0] = children;
+            this.positions[0] = from;
+            this.ends[0] = to;
+            this.next = advance();
+        }
+
+        @SuppressWarnings("unchecked")
+        private Map.Entry<K, V> advance() {
+            if (collisions != null) {
+                if (collisions.hasNext())
+                    return collisions.next();
+                collisions = null;
+            }
+            while (depth >= 0) {
+                if (positions[depth] == ends[depth]) {
+                    depth--;
+                    continue;
+                }
+                Object child = stack[depth][positions[depth]++];
+                if (child instanceof Node) {
+                    Object[] children = ((Node) child).children;
+                    depth++;
+                    if (depth == stack.length) {
+                        stack = Arrays.copyOf(stack, depth + 1);
+                        positions = Arrays.copyOf(positions, depth + 1);
+                        ends = Arrays.copyOf(ends, depth + 1);
+                    }
+                    stack[depth] = children;
+                    positions[depth] = 0;
+                    ends[depth] = children.length;
+                } else if (child instanceof Map.Entry) {
+                    return (Map.Entry<K, V>) child;
+                } else {
+                    collisions = ((Map<K, V>) child).entrySet().iterator();
+                    return collisions.next();
+                }
+            }
+            return null;
+        }
+
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        public T next() {
+            if (next == null)
+                throw new NoSuchElementException();
+            Map.Entry<K, V> entry = next;
+            next = advance();
+            return mapper.apply(entry);
+        }
+    }
+
+    // covers a range of children, and splits it, or the single sub-node it holds
+    private static final class HamtSpliterator<K, V, T> implements Spliterator<T> {
+
+        private final Function<Map.Entry<K, V>, T> mapper;
+        private Object[] children;
+        private int index;
+        private int fence;
+        private long size;
+        private NodeIterator<K, V, T> iterator;
+
+        HamtSpliterator(Object[] children, int index, int fence, Function<Map.Entry<K, V>, T> mapper) {
+            this.mapper = mapper;
+            this.children = children;
+            this.index = index;
+            this.fence = fence;
+            this.size = size(children, index, fence);
+        }
+
+        private static long size(Object[] children, int from, int to) {
+            long size = 0;
+            for (int i = from; i < to; i++) {
+                size += HamtMap.size(children[i]);
+            }
+            return size;
+        }
+
+        public boolean tryAdvance(Consumer<? super T> action) {
+            Objects.requireNonNull(action);
+            if (iterator == null)
+                iterator = new NodeIterator<>(children, index, fence, mapper);
+            if (!iterator.hasNext())
+                return false;
+            size--;
+            action.accept(iterator.next());
+            return true;
+        }
+
+        public void forEachRemaining(Consumer<? super T> action) {
+            Objects.requireNonNull(action);
+            if (iterator == null) {
+                HamtMap.<K, V>forEachEntry(children, index, fence, entry -> action.accept(mapper.apply(entry)));
+                index = fence;
+            } else {
+                iterator.forEachRemaining(action);
+            }
+            size = 0;
+        }
+
+        public Spliterator<T> trySplit() {
+            if (iterator != null)
+                return null;
+            while (fence - index == 1 && children[index] instanceof Node) {
+                children = ((Node) children[index]).children;
+                index = 0;
+                fence = children.length;
+            }
+            if (fence - index < 2)
+                return null;
+            int middle = (index + fence) >>> 1;
+            HamtSpliterator<K, V, T> prefix = new HamtSpliterator<>(children, index, middle, mapper);
+            index = middle;
+            size -= prefix.size;
+            return prefix;
+        }
+
+        public long estimateSize() {
+            return size;
+        }
+
+        public int characteristics() {
+            return Spliterator.DISTINCT | Spliterator.IMMUTABLE | Spliterator.NONNULL |
+                   Spliterator.SIZED | Spliterator.SUBSIZED;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright (C) 2016 Jos Paumard
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+
+package org.paumard.map;
+
+import java.util.Map;
+import java.util.Objects;
+
+public interface IntKeyEntry<V> extends Map.Entry<Integer, V> {
+
+    static <V> IntKeyEntry<V> of(int key, V value) {
+        Objects.requireNonNull(value);
+        return new IntKeyEntry<V>() {
+            public int getIntKey() {
+                return key;
+            }
+
+            public V getValue() {
+                return value;
+            }
+
+            public int hashCode() {
+                return Integer.hashCode(key) ^ value.hashCode();
+            }
+
+            public boolean equals(Object o) {
+                if (!(o instanceof Map.Entry))
+                    return false;
+                Map.Entry<?, ?> other = (Map.Entry<?, ?>) o;
+                return Integer.valueOf(key).equals(other.getKey()) && value.equals(other.getValue());
+            }
+        };
+    }
+
+    int getIntKey();
+
+    default Integer getKey() {
+        return getIntKey();
+    }
+
+    default V setValue(V value) {
+        throw new UnsupportedOperationException();
+    }
+}
@@ -0,0 +1,196 @@
+/*
+ * Copyright (C) 2016 Jos Paumard
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+
+package org.paumard.map;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+@FunctionalInterface
+public interface IntKeySingleElementMap<V> extends Map<Integer, V>, Supplier<IntKeyEntry<V>> {
+
+    static <V> IntKeySingleElementMap<V> of(int key, V value) {
+        IntKeyEntry<V> entry = IntKeyEntry.of(key, value);
+        int hashCode = entry.hashCode();
+        return new IntKeySingleElementMap<V>() {
+            private Set<Integer> keySet;
+            private Collection<V> values;
+            private Set<Entry<Integer, V>> entrySet;
+
+            public IntKeyEntry<V> get() {
+                return entry;
+            }
+
+            public int hashCode() {
+                return hashCode;
+            }
+
+            public boolean equals(Object o) {
+                return o == this ||
+                       o instanceof Map && ((Map<?, ?>) o).size() == 1 &&
+                       MapContracts.hasEntry((Map<?, ?>) o, key, value);
+            }
+
+            public Set<Integer> keySet() {
+                Set<Integer> keySet = this.keySet;
+                if (keySet == null) {
+                    this.keySet = keySet = IntKeySingleElementMap.super.keySet();
+                }
+                return keySet;
+            }
+
+            public Collection<V> values() {
+                Collection<V> values = this.values;
+                if (values == null) {
+                    this.values = values = IntKeySingleElementMap.super.values();
+                }
+                return values;
+            }
+
+            public Set<Entry<Integer, V>> entrySet() {
+                Set<Entry<Integer, V>> entrySet = this.entrySet;
+                if (entrySet == null) {
+                    this.entrySet = entrySet = IntKeySingleElementMap.super.entrySet();
+                }
+                return entrySet;
+            }
+        };
+    }
+
+    default Set<Entry<Integer, V>> entrySet() {
+        return MapViews.singletonSet(() -> get());
+    }
+
+    default V get(int key) {
+        IntKeyEntry<V> entry = get();
+        return entry.getIntKey() == key ? entry.getValue() : null;
+    }
+
+    default V get(Object key) {
+        Objects.requireNonNull(key);
+        return key instanceof Integer ? get((int) (Integer) key) : null;
+    }
+
+    default V getOrDefault(int key, V defaultValue) {
+        V value = get(key);
+        return value != null ? value : defaultValue;
+    }
+
+    default V getOrDefault(Object key, V defaultValue) {
+        V value = get(key);
+        return value != null ? value : defaultValue;
+    }
+
+    default int size() {
+        return 1;
+    }
+
+    default boolean isEmpty() {
+        return false;
+    }
+
+    default boolean containsKey(int key) {
+        return get().getIntKey() == key;
+    }
+
+    default boolean containsKey(Object key) {
+        Objects.requireNonNull(key);
+        return key instanceof Integer && containsKey((int) (Integer) key);
+    }
+
+    default boolean containsValue(Object value) {
+        Objects.requireNonNull(value);
+        return get().getValue().equals(value);
+    }
+
+    default void forEach(BiConsumer<? super Integer, ? super V> action) {
+        Objects.requireNonNull(action);
+        IntKeyEntry<V> entry = get();
+        action.accept(entry.getIntKey(), entry.getValue());
+    }
+
+    default Set<Integer> keySet() {
+        return MapViews.singletonSet(() -> get().getKey());
+    }
+
+    default Collection<V> values() {
+        return MapViews.singletonList(() -> get().getValue());
+    }
+
+    default V put(Integer key, V value) {
+        throw new UnsupportedOperationException();
+    }
+
+    default V remove(Object key) {
+        throw new UnsupportedOperationException();
+    }
+
+    default void putAll(Map<? extends Integer, ? extends V> m) {
+        throw new UnsupportedOperationException();
+    }
+
+    default void clear() {
+        throw new UnsupportedOperationException();
+    }
+
+    default void replaceAll(BiFunction<? super Integer, ? super V, ? extends V> function) {
+        throw new UnsupportedOperationException();
+    }
+
+    default V putIfAbsent(Integer key, V value) {
+        throw new UnsupportedOperationException();
+    }
+
+    default boolean remove(Object key, Object value) {
+        throw new UnsupportedOperationException();
+    }
+
+    default boolean replace(Integer key, V oldValue, V newValue) {
+        throw new UnsupportedOperationException();
+    }
+
+    default V replace(Integer key, V value) {
+        throw new UnsupportedOperationException();
+    }
+
+    default V computeIfAbsent(Integer key,
+                              Function<? super Integer, ? extends V> mappingFunction) {
+        throw new UnsupportedOperationException();
+    }
+
+    default V computeIfPresent(Integer key,
+                               BiFunction<? super Integer, ? super V, ? extends V> remappingFunction) {
+        throw new UnsupportedOperationException();
+    }
+
+    default V compute(Integer key,
+                      BiFunction<? super Integer, ? super V, ? extends V> remappingFunction) {
+        throw new UnsupportedOperationException();
+    }
+
+    default V merge(Integer key, V value,
+                    BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+        throw new UnsupportedOperationException();
+    }
+}
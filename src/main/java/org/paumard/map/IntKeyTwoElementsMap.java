@@ -0,0 +1,209 @@
+/*
+ * Copyright (C) 2016 Jos Paumard
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+
+package org.paumard.map;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+
+@FunctionalInterface
+public interface IntKeyTwoElementsMap<V> extends Map<Integer, V>, IntFunction<IntKeyEntry<V>> {
+
+    static <V> IntKeyTwoElementsMap<V> of(int key1, V value1, int key2, V value2) {
+        if (key1 == key2)
+            throw new IllegalArgumentException("duplicate keys");
+        IntKeyEntry<V> entry1 = IntKeyEntry.of(key1, value1);
+        IntKeyEntry<V> entry2 = IntKeyEntry.of(key2, value2);
+        int hashCode = entry1.hashCode() + entry2.hashCode();
+        return new IntKeyTwoElementsMap<V>() {
+            private Set<Integer> keySet;
+            private Collection<V> values;
+            private Set<Entry<Integer, V>> entrySet;
+
+            public IntKeyEntry<V> apply(int i) {
+                return i == 0 ? entry1 : entry2;
+            }
+
+            public int hashCode() {
+                return hashCode;
+            }
+
+            public boolean equals(Object o) {
+                if (o == this)
+                    return true;
+                if (!(o instanceof Map) || o.getClass() == getClass() && hashCode != o.hashCode())
+                    return false;
+                Map<?, ?> other = (Map<?, ?>) o;
+                return other.size() == 2 &&
+                       MapContracts.hasEntry(other, key1, value1) &&
+                       MapContracts.hasEntry(other, key2, value2);
+            }
+
+            public Set<Integer> keySet() {
+                Set<Integer> keySet = this.keySet;
+                if (keySet == null) {
+                    this.keySet = keySet = IntKeyTwoElementsMap.super.keySet();
+                }
+                return keySet;
+            }
+
+            public Collection<V> values() {
+                Collection<V> values = this.values;
+                if (values == null) {
+                    this.values = values = IntKeyTwoElementsMap.super.values();
+                }
+                return values;
+            }
+
+            public Set<Entry<Integer, V>> entrySet() {
+                Set<Entry<Integer, V>> entrySet = this.entrySet;
+                if (entrySet == null) {
+                    this.entrySet = entrySet = IntKeyTwoElementsMap.super.entrySet();
+                }
+                return entrySet;
+            }
+        };
+    }
+
+    default Set<Entry<Integer, V>> entrySet() {
+        return MapViews.twoElementsSet(i -> apply(i));
+    }
+
+    default V get(int key) {
+        IntKeyEntry<V> entry0 = apply(0);
+        IntKeyEntry<V> entry1 = apply(1);
+        return entry0.getIntKey() == key ? entry0.getValue() :
+               entry1.getIntKey() == key ? entry1.getValue() :
+               null;
+    }
+
+    default V get(Object key) {
+        Objects.requireNonNull(key);
+        return key instanceof Integer ? get((int) (Integer) key) : null;
+    }
+
+    default V getOrDefault(int key, V defaultValue) {
+        V value = get(key);
+        return value != null ? value : defaultValue;
+    }
+
+    default V getOrDefault(Object key, V defaultValue) {
+        V value = get(key);
+        return value != null ? value : defaultValue;
+    }
+
+    default int size() {
+        return 2;
+    }
+
+    default boolean isEmpty() {
+        return false;
+    }
+
+    default boolean containsKey(int key) {
+        return apply(0).getIntKey() == key || apply(1).getIntKey() == key;
+    }
+
+    default boolean containsKey(Object key) {
+        Objects.requireNonNull(key);
+        return key instanceof Integer && containsKey((int) (Integer) key);
+    }
+
+    default boolean containsValue(Object value) {
+        Objects.requireNonNull(value);
+        return apply(0).getValue().equals(value) || apply(1).getValue().equals(value);
+    }
+
+    default void forEach(BiConsumer<? super Integer, ? super V> action) {
+        Objects.requireNonNull(action);
+        IntKeyEntry<V> entry0 = apply(0);
+        action.accept(entry0.getIntKey(), entry0.getValue());
+        IntKeyEntry<V> entry1 = apply(1);
+        action.accept(entry1.getIntKey(), entry1.getValue());
+    }
+
+    default Set<Integer> keySet() {
+        return MapViews.twoElementsSet(i -> apply(i).getKey());
+    }
+
+    default Collection<V> values() {
+        return MapViews.twoElementsList(i -> apply(i).getValue());
+    }
+
+    default V put(Integer key, V value) {
+        throw new UnsupportedOperationException();
+    }
+
+    default V remove(Object key) {
+        throw new UnsupportedOperationException();
+    }
+
+    default void putAll(Map<? extends Integer, ? extends V> m) {
+        throw new UnsupportedOperationException();
+    }
+
+    default void clear() {
+        throw new UnsupportedOperationException();
+    }
+
+    default void replaceAll(BiFunction<? super Integer, ? super V, ? extends V> function) {
+        throw new UnsupportedOperationException();
+    }
+
+    default V putIfAbsent(Integer key, V value) {
+        throw new UnsupportedOperationException();
+    }
+
+    default boolean remove(Object key, Object value) {
+        throw new UnsupportedOperationException();
+    }
+
+    default boolean replace(Integer key, V oldValue, V newValue) {
+        throw new UnsupportedOperationException();
+    }
+
+    default V replace(Integer key, V value) {
+        throw new UnsupportedOperationException();
+    }
+
+    default V computeIfAbsent(Integer key,
+                              Function<? super Integer, ? extends V> mappingFunction) {
+        throw new UnsupportedOperationException();
+    }
+
+    default V computeIfPresent(Integer key,
+                               BiFunction<? super Integer, ? super V, ? extends V> remappingFunction) {
+        throw new UnsupportedOperationException();
+    }
+
+    default V compute(Integer key,
+                      BiFunction<? super Integer, ? super V, ? extends V> remappingFunction) {
+        throw new UnsupportedOperationException();
+    }
+
+    default V merge(Integer key, V value,
+                    BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+        throw new UnsupportedOperationException();
+    }
+}
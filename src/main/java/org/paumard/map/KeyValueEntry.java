@@ -18,17 +18,39 @@
 
 package org.paumard.map;
 
+import java.io.Serializable;
 import java.util.Map;
 import java.util.Objects;
 import java.util.function.Function;
 
+import org.paumard.serialization.SerializationProxy;
+
 @FunctionalInterface
-public interface KeyValueEntry<K, V> extends Map.Entry<K, V>, Function<Boolean, Object> {
+public interface KeyValueEntry<K, V> extends Map.Entry<K, V>, Function<Boolean, Object>, Serializable {
 
     static <K, V> KeyValueEntry<K, V> of(K key, V value) {
         Objects.requireNonNull(key);
         Objects.requireNonNull(value);
-        return b -> b ? key : value;
+        return new KeyValueEntry<K, V>() {
+            public Object apply(Boolean b) {
+                return b ? key : value;
+            }
+
+            public int hashCode() {
+                return key.hashCode() ^ value.hashCode();
+            }
+
+            public boolean equals(Object o) {
+                if (!(o instanceof Map.Entry))
+                    return false;
+                Map.Entry<?, ?> other = (Map.Entry<?, ?>) o;
+                return key.equals(other.getKey()) && value.equals(other.getValue());
+            }
+
+            private Object writeReplace() {
+                return new SerializationProxy(this);
+            }
+        };
     }
 
     @SuppressWarnings("unchecked")
@@ -44,4 +66,13 @@ public interface KeyValueEntry<K, V> extends Map.Entry<K, V>, Function<Boolean,
     default V setValue(V value) {
         throw new UnsupportedOperationException();
     }
+
+    /**
+     * Tells if the key of this entry is the given key, hash being its hash code.
+     * Identity is checked first, then the hash codes, and only then equals().
+     */
+    static boolean hasKey(Map.Entry<?, ?> entry, Object key, int hash) {
+        Object entryKey = entry.getKey();
+        return entryKey == key || entryKey.hashCode() == hash && entryKey.equals(key);
+    }
 }
@@ -0,0 +1,38 @@
+/*
+ * Copyright (C) 2016 Jos Paumard
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+
+package org.paumard.map;
+
+import java.util.Map;
+
+/**
+ * The equals() contract of Map, for the maps of this project.
+ */
+public final class MapContracts {
+
+    private MapContracts() {
+    }
+
+    public static boolean hasEntry(Map<?, ?> map, Object key, Object value) {
+        try {
+            return value.equals(map.get(key));
+        } catch (ClassCastException | NullPointerException e) {
+            return false;
+        }
+    }
+}
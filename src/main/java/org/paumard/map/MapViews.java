@@ -0,0 +1,173 @@
+/*
+ * Copyright (C) 2016 Jos Paumard
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+
+package org.paumard.map;
+
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+import org.paumard.collection.CollectionContracts;
+import org.paumard.collection.IndexedList;
+import org.paumard.collection.SingletonList;
+import org.paumard.collection.SingletonSet;
+import org.paumard.collection.TwoElementsList;
+import org.paumard.collection.TwoElementsSet;
+import org.paumard.collection.iterator.IndexedIterator;
+import org.paumard.collection.spliterator.IndexedSpliterator;
+import org.paumard.serialization.SerializationProxy;
+
+/**
+ * The keySet(), values() and entrySet() views of the maps. A view reads its
+ * elements from the entries of its map each time it is queried: it does not
+ * copy them, and does not check them again, since the map already did.
+ */
+final class MapViews {
+
+    private MapViews() {
+    }
+
+    static <E> SingletonSet<E> singletonSet(Supplier<E> element) {
+        return new SingletonSet<E>() {
+            public E get() {
+                return element.get();
+            }
+
+            public int hashCode() {
+                return element.get().hashCode();
+            }
+
+            public boolean equals(Object o) {
+                return CollectionContracts.setEquals(this, o);
+            }
+
+            private Object writeReplace() {
+                return new SerializationProxy(this);
+            }
+        };
+    }
+
+    static <E> SingletonList<E> singletonList(Supplier<E> element) {
+        return new SingletonList<E>() {
+            public E get() {
+                return element.get();
+            }
+
+            public int hashCode() {
+                return 31 + element.get().hashCode();
+            }
+
+            public boolean equals(Object o) {
+                return CollectionContracts.listEquals(this, o);
+            }
+
+            private Object writeReplace() {
+                return new SerializationProxy(this);
+            }
+        };
+    }
+
+    static <E> TwoElementsSet<E> twoElementsSet(IntFunction<E> elements) {
+        return new TwoElementsSet<E>() {
+            public E apply(int i) {
+                return elements.apply(i);
+            }
+
+            public int hashCode() {
+                return elements.apply(0).hashCode() + elements.apply(1).hashCode();
+            }
+
+            public boolean equals(Object o) {
+                return CollectionContracts.setEquals(this, o);
+            }
+
+            private Object writeReplace() {
+                return new SerializationProxy(this);
+            }
+        };
+    }
+
+    static <E> TwoElementsList<E> twoElementsList(IntFunction<E> elements) {
+        return new TwoElementsList<E>() {
+            public E apply(int i) {
+                return elements.apply(i);
+            }
+
+            public int hashCode() {
+                return 31 * (31 + elements.apply(0).hashCode()) + elements.apply(1).hashCode();
+            }
+
+            public boolean equals(Object o) {
+                return CollectionContracts.listEquals(this, o);
+            }
+
+            private Object writeReplace() {
+                return new SerializationProxy(this);
+            }
+        };
+    }
+
+    static <E> Set<E> set(IntFunction<E> elements, int size) {
+        return new AbstractSet<E>() {
+            public Iterator<E> iterator() {
+                return new IndexedIterator<>(elements, size);
+            }
+
+            public Spliterator<E> spliterator() {
+                return new IndexedSpliterator<>(elements, size,
+                        Spliterator.DISTINCT | Spliterator.IMMUTABLE | Spliterator.NONNULL);
+            }
+
+            public int size() {
+                return size;
+            }
+
+            public boolean contains(Object o) {
+                for (int i = 0; i < size; i++) {
+                    if (elements.apply(i).equals(o))
+                        return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    static <E> List<E> list(IntFunction<E> elements, int size) {
+        return new IndexedList<E>() {
+            public E apply(int i) {
+                return elements.apply(i);
+            }
+
+            public int size() {
+                return size;
+            }
+
+            public int hashCode() {
+                return CollectionContracts.listHashCode(this);
+            }
+
+            public boolean equals(Object o) {
+                return CollectionContracts.listEquals(this, o);
+            }
+        };
+    }
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright (C) 2016 Jos Paumard
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+
+package org.paumard.map;
+
+import java.util.Map;
+
+/**
+ * An immutable map that can return modified copies of itself, as
+ * {@link org.paumard.collection.PersistentList} does for lists. Adding a key
+ * to a {@link SingleElementMap} gives a {@link TwoElementsMap}, adding one to
+ * a {@code TwoElementsMap} gives a {@link HamtMap}, and removing keys from a
+ * {@code HamtMap} gives these small maps back.
+ */
+public interface PersistentMap<K, V> extends Map<K, V> {
+
+    /**
+     * Returns a map where the key is bound to the value, whether it was
+     * already in this map or not.
+     */
+    PersistentMap<K, V> with(K key, V value);
+
+    /**
+     * Returns a map without the key, or this map if it does not hold the key.
+     */
+    PersistentMap<K, V> without(Object key);
+}
@@ -18,6 +18,7 @@
 
 package org.paumard.map;
 
+import java.io.Serializable;
 import java.util.Collection;
 import java.util.Map;
 import java.util.Objects;
@@ -27,26 +28,89 @@ import java.util.function.BiFunction;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
-import org.paumard.collection.SingletonList;
-import org.paumard.collection.SingletonSet;
+import org.paumard.serialization.SerializationProxy;
 
 @FunctionalInterface
-public interface SingleElementMap<K, V> extends Map<K, V>, Supplier<Map.Entry<K, V>> {
+public interface SingleElementMap<K, V> extends PersistentMap<K, V>, Supplier<Map.Entry<K, V>>, Serializable {
 
     static <K, V> SingleElementMap<K, V> of (K key, V value) {
         Objects.requireNonNull(key);
         Objects.requireNonNull(value);
-        return () -> KeyValueEntry.of(key, value);
+        KeyValueEntry<K, V> entry = KeyValueEntry.of(key, value);
+        int hashCode = entry.hashCode();
+        return new SingleElementMap<K, V>() {
+            private Set<K> keySet;
+            private Collection<V> values;
+            private Set<Map.Entry<K, V>> entrySet;
+
+            public Map.Entry<K, V> get() {
+                return entry;
+            }
+
+            public int hashCode() {
+                return hashCode;
+            }
+
+            public boolean equals(Object o) {
+                return o == this ||
+                       o instanceof Map && ((Map<?, ?>) o).size() == 1 &&
+                       MapContracts.hasEntry((Map<?, ?>) o, key, value);
+            }
+
+            public Set<K> keySet() {
+                Set<K> keySet = this.keySet;
+                if (keySet == null) {
+                    this.keySet = keySet = SingleElementMap.super.keySet();
+                }
+                return keySet;
+            }
+
+            public Collection<V> values() {
+                Collection<V> values = this.values;
+                if (values == null) {
+                    this.values = values = SingleElementMap.super.values();
+                }
+                return values;
+            }
+
+            public Set<Map.Entry<K, V>> entrySet() {
+                Set<Map.Entry<K, V>> entrySet = this.entrySet;
+                if (entrySet == null) {
+                    this.entrySet = entrySet = SingleElementMap.super.entrySet();
+                }
+                return entrySet;
+            }
+
+            private Object writeReplace() {
+                return new SerializationProxy(this);
+            }
+        };
     }
 
     default Set<Entry<K, V>> entrySet() {
-        return SingletonSet.of(get());
+        return MapViews.singletonSet(this);
     }
 
 
+    default PersistentMap<K, V> with(K key, V value) {
+        Map.Entry<K, V> entry = get();
+        return entry.getKey().equals(key) ?
+               SingleElementMap.of(key, value) :
+               TwoElementsMap.of(entry.getKey(), entry.getValue(), key, value);
+    }
+
+    default PersistentMap<K, V> without(Object key) {
+        return get().getKey().equals(key) ? HamtMap.empty() : this;
+    }
+
     default V get(Object key) {
         Map.Entry<K, V> entry = get();
-		return entry.equals(key) ? entry.getValue() : null;
+		return KeyValueEntry.hasKey(entry, key, key.hashCode()) ? entry.getValue() : null;
+    }
+
+    default V getOrDefault(Object key, V defaultValue) {
+        V value = get(key);
+        return value != null ? value : defaultValue;
     }
 
     default int size() {
@@ -59,12 +123,12 @@ public interface SingleElementMap<K, V> extends Map<K, V>, Supplier<Map.Entry<K,
 
     default boolean containsKey(Object key) {
         Objects.requireNonNull(key);
-        return keySet().contains(key);
+        return get(key) != null;
     }
 
     default boolean containsValue(Object value) {
         Objects.requireNonNull(value);
-        return values().contains(value);
+        return get().getValue().equals(value);
     }
 
     default void forEach(BiConsumer<? super K, ? super V> action) {
@@ -74,11 +138,11 @@ public interface SingleElementMap<K, V> extends Map<K, V>, Supplier<Map.Entry<K,
     }
 
     default Set<K> keySet() {
-        return SingletonSet.of(get().getKey());
+        return MapViews.singletonSet(() -> get().getKey());
     }
 
     default Collection<V> values() {
-        return SingletonList.of(get().getValue());
+        return MapViews.singletonList(() -> get().getValue());
     }
 
     default V put(K key, V value) {
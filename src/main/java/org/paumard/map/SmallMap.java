@@ -0,0 +1,210 @@
+/*
+ * Copyright (C) 2016 Jos Paumard
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+
+package org.paumard.map;
+
+import java.util.AbstractCollection;
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+
+/**
+ * An immutable map for a few tens of entries, that follows the same rules as
+ * {@link TwoElementsMap}: no null keys or values, no duplicate keys.
+ * <p>
+ * Keys and values are interleaved in a single array: the key of a slot is at
+ * index 2 * slot, its value right after it. A key is placed by linear probing
+ * from its hash, in a table that is at most half full, so that a lookup reads
+ * a key and its value next to each other, and usually no other slot.
+ * {@code apply(i)} returns the element at index i of this array, null for an
+ * empty slot.
+ */
+public interface SmallMap<K, V> extends Map<K, V>, IntFunction<Object> {
+
+    @SafeVarargs
+    static <K, V> SmallMap<K, V> ofEntries(Map.Entry<? extends K, ? extends V>... entries) {
+        Map.Entry<?, ?>[] copy = new Map.Entry<?, ?>[entries.length];
+        for (int i = 0; i < entries.length; i++) {
+            copy[i] = entries[i];
+        }
+        return SmallTables.smallMap(copy);
+    }
+
+    /**
+     * The entries are first copied to an array, so that a map that is
+     * modified during the copy, as a concurrent map, gives a table sized for
+     * the entries it actually holds. The keys are checked for duplicates with
+     * {@code equals()}, since the map may not use it, as an
+     * {@code IdentityHashMap}.
+     */
+    @SuppressWarnings("unchecked")
+    static <K, V> SmallMap<K, V> copyOf(Map<? extends K, ? extends V> map) {
+        if (map instanceof SmallMap)
+            return (SmallMap<K, V>) map;
+        return SmallTables.smallMap(map.entrySet().toArray(new Map.Entry<?, ?>[0]));
+    }
+
+    @SuppressWarnings("unchecked")
+    default V get(Object key) {
+        int length = SmallTables.length(size());
+        Object k;
+        for (int index = SmallTables.start(key, length); (k = apply(index)) != null; index = SmallTables.next(index, length)) {
+            if (k == key || k.equals(key))
+                return (V) apply(index + 1);
+        }
+        return null;
+    }
+
+    default V getOrDefault(Object key, V defaultValue) {
+        V value = get(key);
+        return value != null ? value : defaultValue;
+    }
+
+    default boolean isEmpty() {
+        return size() == 0;
+    }
+
+    default boolean containsKey(Object key) {
+        Objects.requireNonNull(key);
+        return get(key) != null;
+    }
+
+    default boolean containsValue(Object value) {
+        Objects.requireNonNull(value);
+        int length = SmallTables.length(size());
+        for (int i = 0; i < length; i += 2) {
+            if (apply(i) != null && apply(i + 1).equals(value))
+                return true;
+        }
+        return false;
+    }
+
+    @SuppressWarnings("unchecked")
+    default void forEach(BiConsumer<? super K, ? super V> action) {
+        Objects.requireNonNull(action);
+        int length = SmallTables.length(size());
+        for (int i = 0; i < length; i += 2) {
+            Object key = apply(i);
+            if (key != null)
+                action.accept((K) key, (V) apply(i + 1));
+        }
+    }
+
+    default Set<Entry<K, V>> entrySet() {
+        return new AbstractSet<Entry<K, V>>() {
+            public Iterator<Entry<K, V>> iterator() {
+                return new SmallTables.SlotIterator<>(SmallMap.this, i -> KeyValueEntry.of(SmallMap.this.apply(i), SmallMap.this.apply(i + 1)));
+            }
+
+            public int size() {
+                return SmallMap.this.size();
+            }
+        };
+    }
+
+    default Set<K> keySet() {
+        return new AbstractSet<K>() {
+            public Iterator<K> iterator() {
+                return new SmallTables.SlotIterator<>(SmallMap.this, SmallMap.this);
+            }
+
+            public int size() {
+                return SmallMap.this.size();
+            }
+
+            public boolean contains(Object o) {
+                return SmallMap.this.containsKey(o);
+            }
+        };
+    }
+
+    default Collection<V> values() {
+        return new AbstractCollection<V>() {
+            public Iterator<V> iterator() {
+                return new SmallTables.SlotIterator<>(SmallMap.this, i -> SmallMap.this.apply(i + 1));
+            }
+
+            public int size() {
+                return SmallMap.this.size();
+            }
+        };
+    }
+
+    default V put(K key, V value) {
+        throw new UnsupportedOperationException();
+    }
+
+    default V remove(Object key) {
+        throw new UnsupportedOperationException();
+    }
+
+    default void putAll(Map<? extends K, ? extends V> m) {
+        throw new UnsupportedOperationException();
+    }
+
+    default void clear() {
+        throw new UnsupportedOperationException();
+    }
+
+    default void replaceAll(BiFunction<? super K, ? super V, ? extends V> function) {
+        throw new UnsupportedOperationException();
+    }
+
+    default V putIfAbsent(K key, V value) {
+        throw new UnsupportedOperationException();
+    }
+
+    default boolean remove(Object key, Object value) {
+        throw new UnsupportedOperationException();
+    }
+
+    default boolean replace(K key, V oldValue, V newValue) {
+        throw new UnsupportedOperationException();
+    }
+
+    default V replace(K key, V value) {
+        throw new UnsupportedOperationException();
+    }
+
+    default V computeIfAbsent(K key,
+                              Function<? super K, ? extends V> mappingFunction) {
+        throw new UnsupportedOperationException();
+    }
+
+    default V computeIfPresent(K key,
+                               BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+        throw new UnsupportedOperationException();
+    }
+
+    default V compute(K key,
+                      BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+        throw new UnsupportedOperationException();
+    }
+
+    default V merge(K key, V value,
+                    BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+        throw new UnsupportedOperationException();
+    }
+}
@@ -0,0 +1,285 @@
+/*
+ * Copyright (C) 2016 Jos Paumard
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+
+package org.paumard.map;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import org.paumard.collection.SmallSortedSet;
+
+/**
+ * An immutable sorted map of a few tens of entries, with no null keys nor
+ * values, built on a {@link SmallSortedSet} of its keys: {@code valueAt(i)}
+ * returns the value bound to the key of rank i. A lookup is thus the
+ * branch-free rank computation of this key set, and the sub-maps and the
+ * descending map are views that share the keys and values of this map.
+ */
+public interface SmallSortedMap<K, V> extends NavigableMap<K, V> {
+
+    /**
+     * The keys are sorted and checked for duplicates by their
+     * {@link SmallSortedSet}, and each value is put at the rank of its key.
+     */
+    @SafeVarargs
+    @SuppressWarnings("unchecked")
+    static <K, V> SmallSortedMap<K, V> ofEntries(Comparator<? super K> comparator, Map.Entry<? extends K, ? extends V>... entries) {
+        K[] keys = (K[]) new Object[entries.length];
+        for (int i = 0; i < entries.length; i++) {
+            keys[i] = entries[i].getKey();
+        }
+        SmallSortedSet<K> keySet = SmallSortedSet.of(comparator, keys);
+        V[] values = (V[]) new Object[entries.length];
+        for (Map.Entry<? extends K, ? extends V> entry : entries) {
+            values[keySet.indexOf(entry.getKey())] = Objects.requireNonNull(entry.getValue());
+        }
+        return SortedMaps.sortedMap(keySet, i -> values[i]);
+    }
+
+    @SuppressWarnings("unchecked")
+    static <K, V> SmallSortedMap<K, V> copyOf(SortedMap<K, ? extends V> map) {
+        if (map instanceof SmallSortedMap)
+            return (SmallSortedMap<K, V>) map;
+        return ofEntries(map.comparator(), (Map.Entry<K, V>[]) map.entrySet().toArray(new Map.Entry<?, ?>[0]));
+    }
+
+    SmallSortedSet<K> navigableKeySet();
+
+    V valueAt(int index);
+
+    default K keyAt(int index) {
+        return navigableKeySet().apply(index);
+    }
+
+    default Map.Entry<K, V> entryAt(int index) {
+        return KeyValueEntry.of(keyAt(index), valueAt(index));
+    }
+
+    default int indexOf(Object key) {
+        return navigableKeySet().indexOf(key);
+    }
+
+    default int size() {
+        return navigableKeySet().size();
+    }
+
+    default boolean isEmpty() {
+        return size() == 0;
+    }
+
+    default Comparator<? super K> comparator() {
+        return navigableKeySet().comparator();
+    }
+
+    default boolean containsKey(Object key) {
+        return indexOf(key) >= 0;
+    }
+
+    default boolean containsValue(Object value) {
+        Objects.requireNonNull(value);
+        for (int i = 0; i < size(); i++) {
+            if (value.equals(valueAt(i)))
+                return true;
+        }
+        return false;
+    }
+
+    default V get(Object key) {
+        int index = indexOf(key);
+        return index >= 0 ? valueAt(index) : null;
+    }
+
+    default V getOrDefault(Object key, V defaultValue) {
+        int index = indexOf(key);
+        return index >= 0 ? valueAt(index) : defaultValue;
+    }
+
+    default void forEach(BiConsumer<? super K, ? super V> action) {
+        Objects.requireNonNull(action);
+        for (int i = 0; i < size(); i++) {
+            action.accept(keyAt(i), valueAt(i));
+        }
+    }
+
+    default SmallSortedSet<K> keySet() {
+        return navigableKeySet();
+    }
+
+    default SmallSortedSet<K> descendingKeySet() {
+        return navigableKeySet().descendingSet();
+    }
+
+    default Collection<V> values() {
+        return MapViews.list(this::valueAt, size());
+    }
+
+    default Set<Map.Entry<K, V>> entrySet() {
+        return MapViews.set(this::entryAt, size());
+    }
+
+    default K firstKey() {
+        return navigableKeySet().first();
+    }
+
+    default K lastKey() {
+        return navigableKeySet().last();
+    }
+
+    default Map.Entry<K, V> firstEntry() {
+        return isEmpty() ? null : entryAt(0);
+    }
+
+    default Map.Entry<K, V> lastEntry() {
+        return isEmpty() ? null : entryAt(size() - 1);
+    }
+
+    default Map.Entry<K, V> lowerEntry(K key) {
+        int rank = navigableKeySet().rank(key, false);
+        return rank > 0 ? entryAt(rank - 1) : null;
+    }
+
+    default Map.Entry<K, V> floorEntry(K key) {
+        int rank = navigableKeySet().rank(key, true);
+        return rank > 0 ? entryAt(rank - 1) : null;
+    }
+
+    default Map.Entry<K, V> ceilingEntry(K key) {
+        int rank = navigableKeySet().rank(key, false);
+        return rank < size() ? entryAt(rank) : null;
+    }
+
+    default Map.Entry<K, V> higherEntry(K key) {
+        int rank = navigableKeySet().rank(key, true);
+        return rank < size() ? entryAt(rank) : null;
+    }
+
+    default K lowerKey(K key) {
+        return navigableKeySet().lower(key);
+    }
+
+    default K floorKey(K key) {
+        return navigableKeySet().floor(key);
+    }
+
+    default K ceilingKey(K key) {
+        return navigableKeySet().ceiling(key);
+    }
+
+    default K higherKey(K key) {
+        return navigableKeySet().higher(key);
+    }
+
+    default SmallSortedMap<K, V> descendingMap() {
+        int last = size() - 1;
+        return SortedMaps.sortedMap(descendingKeySet(), i -> valueAt(last - i));
+    }
+
+    default SmallSortedMap<K, V> subMap(K fromKey, boolean fromInclusive, K toKey, boolean toInclusive) {
+        SmallSortedSet<K> keys = navigableKeySet();
+        return SortedMaps.slice(this, keys.subSet(fromKey, fromInclusive, toKey, toInclusive), keys.rank(fromKey, !fromInclusive));
+    }
+
+    default SmallSortedMap<K, V> headMap(K toKey, boolean inclusive) {
+        return SortedMaps.slice(this, navigableKeySet().headSet(toKey, inclusive), 0);
+    }
+
+    default SmallSortedMap<K, V> tailMap(K fromKey, boolean inclusive) {
+        SmallSortedSet<K> keys = navigableKeySet();
+        return SortedMaps.slice(this, keys.tailSet(fromKey, inclusive), keys.rank(fromKey, !inclusive));
+    }
+
+    default SmallSortedMap<K, V> subMap(K fromKey, K toKey) {
+        return subMap(fromKey, true, toKey, false);
+    }
+
+    default SmallSortedMap<K, V> headMap(K toKey) {
+        return headMap(toKey, false);
+    }
+
+    default SmallSortedMap<K, V> tailMap(K fromKey) {
+        return tailMap(fromKey, true);
+    }
+
+    default Map.Entry<K, V> pollFirstEntry() {
+        throw new UnsupportedOperationException();
+    }
+
+    default Map.Entry<K, V> pollLastEntry() {
+        throw new UnsupportedOperationException();
+    }
+
+    default V put(K key, V value) {
+        throw new UnsupportedOperationException();
+    }
+
+    default V remove(Object key) {
+        throw new UnsupportedOperationException();
+    }
+
+    default void putAll(Map<? extends K, ? extends V> m) {
+        throw new UnsupportedOperationException();
+    }
+
+    default void clear() {
+        throw new UnsupportedOperationException();
+    }
+
+    default void replaceAll(BiFunction<? super K, ? super V, ? extends V> function) {
+        throw new UnsupportedOperationException();
+    }
+
+    default V putIfAbsent(K key, V value) {
+        throw new UnsupportedOperationException();
+    }
+
+    default boolean remove(Object key, Object value) {
+        throw new UnsupportedOperationException();
+    }
+
+    default boolean replace(K key, V oldValue, V newValue) {
+        throw new UnsupportedOperationException();
+    }
+
+    default V replace(K key, V value) {
+        throw new UnsupportedOperationException();
+    }
+
+    default V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+        throw new UnsupportedOperationException();
+    }
+
+    default V computeIfPresent(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+        throw new UnsupportedOperationException();
+    }
+
+    default V compute(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+        throw new UnsupportedOperationException();
+    }
+
+    default V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+        throw new UnsupportedOperationException();
+    }
+}
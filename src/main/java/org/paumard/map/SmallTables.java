@@ -0,0 +1,142 @@
+/*
+ * Copyright (C) 2016 Jos Paumard
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+
+package org.paumard.map;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.function.IntFunction;
+
+final class SmallTables {
+
+    private SmallTables() {
+    }
+
+    // length of the interleaved array of a table holding size keys, at most half full
+    static int length(int size) {
+        int slots = Integer.highestOneBit(Math.max(2 * size - 1, 1)) << 1;
+        return 2 * slots;
+    }
+
+    // index of the first slot to probe for this key, always even
+    static int start(Object key, int length) {
+        int h = key.hashCode();
+        return ((h ^ (h >>> 16)) << 1) & (length - 1);
+    }
+
+    static int next(int index, int length) {
+        return (index + 2) & (length - 1);
+    }
+
+    // index of the key in the table, or of the empty slot where it should be put
+    static int probe(Object[] table, Object key) {
+        int index = start(key, table.length);
+        Object k;
+        while ((k = table[index]) != null && !k.equals(key)) {
+            index = next(index, table.length);
+        }
+        return index;
+    }
+
+    static <K, V> SmallMap<K, V> smallMap(Map.Entry<?, ?>[] entries) {
+        Object[] table = new Object[length(entries.length)];
+        int hashCode = 0;
+        for (Map.Entry<?, ?> entry : entries) {
+            Object key = Objects.requireNonNull(entry.getKey());
+            Object value = Objects.requireNonNull(entry.getValue());
+            int index = probe(table, key);
+            if (table[index] != null)
+                throw new IllegalArgumentException("duplicate keys");
+            table[index] = key;
+            table[index + 1] = value;
+            hashCode += key.hashCode() ^ value.hashCode();
+        }
+        return smallMap(table, entries.length, hashCode);
+    }
+
+    static <K, V> SmallMap<K, V> smallMap(Object[] table, int size, int hashCode) {
+        return new SmallMap<K, V>() {
+            public Object apply(int i) {
+                return table[i];
+            }
+
+            public int size() {
+                return size;
+            }
+
+            public int hashCode() {
+                return hashCode;
+            }
+
+            public boolean equals(Object o) {
+                if (o == this)
+                    return true;
+                if (!(o instanceof Map) || o.getClass() == getClass() && hashCode != o.hashCode())
+                    return false;
+                Map<?, ?> other = (Map<?, ?>) o;
+                if (other.size() != size)
+                    return false;
+                for (int i = 0; i < table.length; i += 2) {
+                    if (table[i] != null && !MapContracts.hasEntry(other, table[i], table[i + 1]))
+                        return false;
+                }
+                return true;
+            }
+        };
+    }
+
+    // walks the occupied slots of the table, reading each one through the given function
+    static final class SlotIterator<T> implements Iterator<T> {
+
+        private final SmallMap<?, ?> map;
+        private final IntFunction<?> function;
+        private final int length;
+        private int index;
+
+        SlotIterator(SmallMap<?, ?> map, IntFunction<?> function) {
+            this.map = map;
+            this.function = function;
+            this.length = length(map.size());
+            this.index = advance(0);
+        }
+
+        private int advance(int from) {
+            while (from < length && map.apply(from) == null) {
+                from += 2;
+            }
+            return from;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return index < length;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T next() {
+            if (index >= length)
+                throw new NoSuchElementException();
+            T result = (T) function.apply(index);
+            index = advance(index + 2);
+            return result;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright (C) 2016 Jos Paumard
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+
+package org.paumard.map;
+
+import java.util.Map;
+import java.util.function.IntFunction;
+
+import org.paumard.collection.SmallSortedSet;
+
+/**
+ * The small sorted maps and their views: a sorted set of keys, and the
+ * values in the same order.
+ */
+final class SortedMaps {
+
+    private SortedMaps() {
+    }
+
+    static <K, V> SmallSortedMap<K, V> sortedMap(SmallSortedSet<K> keys, IntFunction<V> values) {
+        return new SmallSortedMap<K, V>() {
+            private int hashCode;
+
+            public SmallSortedSet<K> navigableKeySet() {
+                return keys;
+            }
+
+            public V valueAt(int index) {
+                return values.apply(index);
+            }
+
+            public int hashCode() {
+                int h = hashCode;
+                if (h == 0) {
+                    for (int i = 0; i < keys.size(); i++) {
+                        h += keys.apply(i).hashCode() ^ values.apply(i).hashCode();
+                    }
+                    hashCode = h;
+                }
+                return h;
+            }
+
+            public boolean equals(Object o) {
+                if (o == this)
+                    return true;
+                if (!(o instanceof Map))
+                    return false;
+                Map<?, ?> other = (Map<?, ?>) o;
+                if (other.size() != keys.size())
+                    return false;
+                for (int i = 0; i < keys.size(); i++) {
+                    if (!MapContracts.hasEntry(other, keys.apply(i), values.apply(i)))
+                        return false;
+                }
+                return true;
+            }
+        };
+    }
+
+    static <K, V> SmallSortedMap<K, V> slice(SmallSortedMap<K, V> map, SmallSortedSet<K> keys, int from) {
+        if (keys == map.navigableKeySet())
+            return map;
+        return sortedMap(keys, i -> map.valueAt(from + i));
+    }
+}
@@ -18,6 +18,7 @@
 
 package org.paumard.map;
 
+import java.io.Serializable;
 import java.util.Collection;
 import java.util.Map;
 import java.util.Objects;
@@ -27,10 +28,10 @@ import java.util.function.BiFunction;
 import java.util.function.Function;
 import java.util.function.IntFunction;
 
-import org.paumard.collection.TwoElementsSet;
+import org.paumard.serialization.SerializationProxy;
 
 @FunctionalInterface
-public interface TwoElementsMap<K, V> extends Map<K, V>, IntFunction<Map.Entry<K, V>> {
+public interface TwoElementsMap<K, V> extends PersistentMap<K, V>, IntFunction<Map.Entry<K, V>>, Serializable {
 
     static <K, V> TwoElementsMap<K, V> of(K key1, V value1, K key2, V value2) {
         Objects.requireNonNull(key1);
@@ -39,22 +40,103 @@ public interface TwoElementsMap<K, V> extends Map<K, V>, IntFunction<Map.Entry<K
         Objects.requireNonNull(value2);
         if (key1.equals(key2))
         	throw new IllegalArgumentException("duplicate keys");
-        return i -> i == 0 ? KeyValueEntry.of(key1, value1) : KeyValueEntry.of(key2, value2);
+        KeyValueEntry<K, V> entry1 = KeyValueEntry.of(key1, value1);
+        KeyValueEntry<K, V> entry2 = KeyValueEntry.of(key2, value2);
+        int hashCode = entry1.hashCode() + entry2.hashCode();
+        return new TwoElementsMap<K, V>() {
+            private Set<K> keySet;
+            private Collection<V> values;
+            private Set<Map.Entry<K, V>> entrySet;
+
+            public Map.Entry<K, V> apply(int i) {
+                return i == 0 ? entry1 : entry2;
+            }
+
+            public int hashCode() {
+                return hashCode;
+            }
+
+            public boolean equals(Object o) {
+                if (o == this)
+                    return true;
+                if (!(o instanceof Map) || o.getClass() == getClass() && hashCode != o.hashCode())
+                    return false;
+                Map<?, ?> other = (Map<?, ?>) o;
+                return other.size() == 2 &&
+                       MapContracts.hasEntry(other, key1, value1) &&
+                       MapContracts.hasEntry(other, key2, value2);
+            }
+
+            public Set<K> keySet() {
+                Set<K> keySet = this.keySet;
+                if (keySet == null) {
+                    this.keySet = keySet = TwoElementsMap.super.keySet();
+                }
+                return keySet;
+            }
+
+            public Collection<V> values() {
+                Collection<V> values = this.values;
+                if (values == null) {
+                    this.values = values = TwoElementsMap.super.values();
+                }
+                return values;
+            }
+
+            public Set<Map.Entry<K, V>> entrySet() {
+                Set<Map.Entry<K, V>> entrySet = this.entrySet;
+                if (entrySet == null) {
+                    this.entrySet = entrySet = TwoElementsMap.super.entrySet();
+                }
+                return entrySet;
+            }
+
+            private Object writeReplace() {
+                return new SerializationProxy(this);
+            }
+        };
     }
 
     default Set<Entry<K, V>> entrySet() {
-        return TwoElementsSet.of(apply(0), apply(1));
+        return MapViews.twoElementsSet(this);
     }
 
 
+    default PersistentMap<K, V> with(K key, V value) {
+        Map.Entry<K, V> entry0 = apply(0);
+        Map.Entry<K, V> entry1 = apply(1);
+        if (entry0.getKey().equals(key))
+            return TwoElementsMap.of(key, value, entry1.getKey(), entry1.getValue());
+        if (entry1.getKey().equals(key))
+            return TwoElementsMap.of(entry0.getKey(), entry0.getValue(), key, value);
+        return HamtMap.<K, V>empty()
+                .plus(entry0.getKey(), entry0.getValue())
+                .plus(entry1.getKey(), entry1.getValue())
+                .plus(key, value);
+    }
+
+    default PersistentMap<K, V> without(Object key) {
+        Map.Entry<K, V> entry0 = apply(0);
+        Map.Entry<K, V> entry1 = apply(1);
+        return entry0.getKey().equals(key) ? SingleElementMap.of(entry1.getKey(), entry1.getValue()) :
+               entry1.getKey().equals(key) ? SingleElementMap.of(entry0.getKey(), entry0.getValue()) :
+               this;
+    }
+
     default V get(Object key) {
+        int hash = key.hashCode();
         Map.Entry<K, V> entry0 = apply(0);
         Map.Entry<K, V> entry1 = apply(1);
-		return entry0.equals(key) ? entry0.getValue() :
-			   entry1.equals(key) ? entry1.getValue() :
+		return KeyValueEntry.hasKey(entry0, key, hash) ? entry0.getValue() :
+			   KeyValueEntry.hasKey(entry1, key, hash) ? entry1.getValue() :
                 null;
     }
 
+    default V getOrDefault(Object key, V defaultValue) {
+        V value = get(key);
+        return value != null ? value : defaultValue;
+    }
+
     default int size() {
         return 2;
     }
@@ -65,12 +147,12 @@ public interface TwoElementsMap<K, V> extends Map<K, V>, IntFunction<Map.Entry<K
 
     default boolean containsKey(Object key) {
         Objects.requireNonNull(key);
-        return keySet().contains(key);
+        return get(key) != null;
     }
 
     default boolean containsValue(Object value) {
         Objects.requireNonNull(value);
-        return values().contains(value);
+        return apply(0).getValue().equals(value) || apply(1).getValue().equals(value);
     }
 
     default void forEach(BiConsumer<? super K, ? super V> action) {
@@ -82,11 +164,11 @@ public interface TwoElementsMap<K, V> extends Map<K, V>, IntFunction<Map.Entry<K
     }
 
     default Set<K> keySet() {
-        return TwoElementsSet.of(apply(0).getKey(), apply(1).getKey());
+        return MapViews.twoElementsSet(i -> apply(i).getKey());
     }
 
     default Collection<V> values() {
-        return TwoElementsSet.of(apply(0).getValue(), apply(1).getValue());
+        return MapViews.twoElementsList(i -> apply(i).getValue());
     }
 
     default V put(K key, V value) {
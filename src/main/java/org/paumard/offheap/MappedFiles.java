@@ -0,0 +1,106 @@
+/*
+ * Copyright (C) 2016 Jos Paumard
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+
+package org.paumard.offheap;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Set;
+
+/**
+ * Maps and writes the files of {@link MappedList} and {@link MappedMap}. A
+ * file starts with a header of four ints: a magic number, the number of
+ * records, and the size of a key and of a value (the size of an element and 0
+ * for a list), followed by the records.
+ */
+final class MappedFiles {
+
+    static final int LIST_MAGIC = 0x4C434C31;
+    static final int MAP_MAGIC = 0x4C434D31;
+    static final int HEADER_SIZE = 16;
+
+    private MappedFiles() {
+    }
+
+    static ByteBuffer open(Path path, int magic, int keySize, int valueSize) throws IOException {
+        ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE)
+                throw new IOException("File too large: " + path);
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != magic)
+            throw new IOException("Not a mapped " + (magic == LIST_MAGIC ? "list" : "map") + ": " + path);
+        int size = buffer.getInt(4);
+        if (buffer.getInt(8) != keySize || buffer.getInt(12) != valueSize)
+            throw new IOException("Record size does not match the codec: " + path);
+        if (size < 0 || HEADER_SIZE + (long) size * (keySize + valueSize) != buffer.capacity())
+            throw new IOException("Truncated file: " + path);
+        buffer.position(HEADER_SIZE);
+        return buffer.slice();
+    }
+
+    /**
+     * Writes the file next to its final location, then moves it in place, so
+     * that a JVM that has mapped the previous version keeps reading it. The
+     * file keeps the permissions of the previous version, or gets
+     * {@code rw-r--r--}, rather than those of a temporary file.
+     */
+    static void write(Path path, int magic, int size, int keySize, int valueSize, RecordWriter writer) throws IOException {
+        long length = HEADER_SIZE + (long) size * (keySize + valueSize);
+        if (length > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("Cannot write " + size + " records of " + (keySize + valueSize) + " bytes");
+        Path directory = path.toAbsolutePath().getParent();
+        Path temporary = Files.createTempFile(directory, path.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, length);
+                buffer.putInt(0, magic).putInt(4, size).putInt(8, keySize).putInt(12, valueSize);
+                buffer.position(HEADER_SIZE);
+                writer.write(buffer.slice());
+                buffer.force();
+            }
+            copyPermissions(path, temporary);
+            Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    private static void copyPermissions(Path path, Path temporary) throws IOException {
+        if (!temporary.getFileSystem().supportedFileAttributeViews().contains("posix"))
+            return;
+        Set<PosixFilePermission> permissions = Files.exists(path) ?
+                Files.getPosixFilePermissions(path) :
+                PosixFilePermissions.fromString("rw-r--r--");
+        Files.setPosixFilePermissions(temporary, permissions);
+    }
+
+    interface RecordWriter {
+
+        void write(ByteBuffer records);
+    }
+}
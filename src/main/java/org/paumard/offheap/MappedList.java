@@ -0,0 +1,55 @@
+/*
+ * Copyright (C) 2016 Jos Paumard
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+
+package org.paumard.offheap;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Objects;
+
+/**
+ * An {@link OffHeapList} read from a file mapped in memory. Opening the list
+ * only reads the header of the file: the records are read through the page
+ * cache and decoded when they are accessed, so that several JVMs opening the
+ * same file share a single copy of it.
+ */
+public interface MappedList<E> extends OffHeapList<E> {
+
+    static <E> MappedList<E> open(Path path, RecordCodec<E> codec) throws IOException {
+        ByteBuffer records = MappedFiles.open(path, MappedFiles.LIST_MAGIC, codec.recordSize(), 0);
+        return RecordLists.mappedList(records, codec);
+    }
+
+    /**
+     * Writes the elements in a file that can be opened by {@link #open}. An
+     * existing file is replaced atomically.
+     */
+    static <E> void write(Path path, Collection<? extends E> elements, RecordCodec<E> codec) throws IOException {
+        int recordSize = codec.recordSize();
+        int size = elements.size();
+        MappedFiles.write(path, MappedFiles.LIST_MAGIC, size, recordSize, 0, records -> {
+            Iterator<? extends E> iterator = elements.iterator();
+            for (int i = 0; i < size; i++) {
+                codec.encode(Objects.requireNonNull(iterator.next()), records, i * recordSize);
+            }
+        });
+    }
+}
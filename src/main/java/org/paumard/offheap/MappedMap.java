@@ -0,0 +1,290 @@
+/*
+ * Copyright (C) 2016 Jos Paumard
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+
+package org.paumard.offheap;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.AbstractCollection;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import org.paumard.collection.iterator.IndexedIterator;
+import org.paumard.map.KeyValueEntry;
+import org.paumard.map.MapContracts;
+
+/**
+ * An immutable map read from a file mapped in memory, with no null keys or
+ * values. The file holds the keys, sorted by the comparator of the map, then
+ * the values in the same order: {@code get()} is a binary search that only
+ * decodes the keys it compares, and the value it returns.
+ */
+public interface MappedMap<K, V> extends Map<K, V> {
+
+    static <K, V> MappedMap<K, V> open(Path path, RecordCodec<K> keyCodec, RecordCodec<V> valueCodec,
+                                       Comparator<? super K> comparator) throws IOException {
+        Objects.requireNonNull(comparator);
+        int keySize = keyCodec.recordSize();
+        int valueSize = valueCodec.recordSize();
+        ByteBuffer records = MappedFiles.open(path, MappedFiles.MAP_MAGIC, keySize, valueSize);
+        int size = records.capacity() / (keySize + valueSize);
+        int values = size * keySize;
+        return new MappedMap<K, V>() {
+            private int hashCode;
+
+            public K keyAt(int index) {
+                return keyCodec.decode(records, index * keySize);
+            }
+
+            public V valueAt(int index) {
+                return valueCodec.decode(records, values + index * valueSize);
+            }
+
+            public int size() {
+                return size;
+            }
+
+            public Comparator<? super K> comparator() {
+                return comparator;
+            }
+
+            public int hashCode() {
+                int h = hashCode;
+                if (h == 0) {
+                    for (int i = 0; i < size; i++) {
+                        h += keyAt(i).hashCode() ^ valueAt(i).hashCode();
+                    }
+                    hashCode = h;
+                }
+                return h;
+            }
+
+            public boolean equals(Object o) {
+                if (o == this)
+                    return true;
+                if (!(o instanceof Map))
+                    return false;
+                Map<?, ?> other = (Map<?, ?>) o;
+                if (other.size() != size)
+                    return false;
+                for (int i = 0; i < size; i++) {
+                    if (!MapContracts.hasEntry(other, keyAt(i), valueAt(i)))
+                        return false;
+                }
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Writes the entries of the map in a file that can be opened by
+     * {@link #open} with the same comparator. An existing file is replaced
+     * atomically.
+     */
+    @SuppressWarnings("unchecked")
+    static <K, V> void write(Path path, Map<? extends K, ? extends V> map, RecordCodec<K> keyCodec, RecordCodec<V> valueCodec,
+                             Comparator<? super K> comparator) throws IOException {
+        Map.Entry<K, V>[] entries = (Map.Entry<K, V>[]) map.entrySet().toArray(new Map.Entry<?, ?>[0]);
+        Comparator<Map.Entry<K, V>> byKey = Map.Entry.comparingByKey(comparator);
+        Arrays.sort(entries, byKey);
+        for (int i = 1; i < entries.length; i++) {
+            if (byKey.compare(entries[i - 1], entries[i]) == 0)
+                throw new IllegalArgumentException("duplicate keys");
+        }
+        int keySize = keyCodec.recordSize();
+        int valueSize = valueCodec.recordSize();
+        int values = entries.length * keySize;
+        MappedFiles.write(path, MappedFiles.MAP_MAGIC, entries.length, keySize, valueSize, records -> {
+            for (int i = 0; i < entries.length; i++) {
+                keyCodec.encode(Objects.requireNonNull(entries[i].getKey()), records, i * keySize);
+                valueCodec.encode(Objects.requireNonNull(entries[i].getValue()), records, values + i * valueSize);
+            }
+        });
+    }
+
+    K keyAt(int index);
+
+    V valueAt(int index);
+
+    Comparator<? super K> comparator();
+
+    /**
+     * Returns the index of the key in this map, or -1 if it is not there.
+     */
+    @SuppressWarnings("unchecked")
+    default int indexOf(Object key) {
+        if (key == null)
+            return -1;
+        Comparator<? super K> comparator = comparator();
+        int low = 0;
+        int high = size() - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int c = comparator.compare(keyAt(middle), (K) key);
+            if (c < 0)
+                low = middle + 1;
+            else if (c > 0)
+                high = middle - 1;
+            else
+                return middle;
+        }
+        return -1;
+    }
+
+    default V get(Object key) {
+        int index = indexOf(key);
+        return index >= 0 ? valueAt(index) : null;
+    }
+
+    default V getOrDefault(Object key, V defaultValue) {
+        int index = indexOf(key);
+        return index >= 0 ? valueAt(index) : defaultValue;
+    }
+
+    default boolean isEmpty() {
+        return size() == 0;
+    }
+
+    default boolean containsKey(Object key) {
+        return indexOf(key) >= 0;
+    }
+
+    default boolean containsValue(Object value) {
+        Objects.requireNonNull(value);
+        int size = size();
+        for (int i = 0; i < size; i++) {
+            if (valueAt(i).equals(value))
+                return true;
+        }
+        return false;
+    }
+
+    default void forEach(BiConsumer<? super K, ? super V> action) {
+        Objects.requireNonNull(action);
+        int size = size();
+        for (int i = 0; i < size; i++) {
+            action.accept(keyAt(i), valueAt(i));
+        }
+    }
+
+    default Set<Entry<K, V>> entrySet() {
+        return new AbstractSet<Entry<K, V>>() {
+            public Iterator<Entry<K, V>> iterator() {
+                return new IndexedIterator<>(i -> KeyValueEntry.of(keyAt(i), valueAt(i)), MappedMap.this.size());
+            }
+
+            public int size() {
+                return MappedMap.this.size();
+            }
+        };
+    }
+
+    default Set<K> keySet() {
+        return new AbstractSet<K>() {
+            public Iterator<K> iterator() {
+                return new IndexedIterator<>(MappedMap.this::keyAt, MappedMap.this.size());
+            }
+
+            public int size() {
+                return MappedMap.this.size();
+            }
+
+            public boolean contains(Object o) {
+                return MappedMap.this.containsKey(o);
+            }
+        };
+    }
+
+    default Collection<V> values() {
+        return new AbstractCollection<V>() {
+            public Iterator<V> iterator() {
+                return new IndexedIterator<>(MappedMap.this::valueAt, MappedMap.this.size());
+            }
+
+            public int size() {
+                return MappedMap.this.size();
+            }
+        };
+    }
+
+    default V put(K key, V value) {
+        throw new UnsupportedOperationException();
+    }
+
+    default V remove(Object key) {
+        throw new UnsupportedOperationException();
+    }
+
+    default void putAll(Map<? extends K, ? extends V> m) {
+        throw new UnsupportedOperationException();
+    }
+
+    default void clear() {
+        throw new UnsupportedOperationException();
+    }
+
+    default void replaceAll(BiFunction<? super K, ? super V, ? extends V> function) {
+        throw new UnsupportedOperationException();
+    }
+
+    default V putIfAbsent(K key, V value) {
+        throw new UnsupportedOperationException();
+    }
+
+    default boolean remove(Object key, Object value) {
+        throw new UnsupportedOperationException();
+    }
+
+    default boolean replace(K key, V oldValue, V newValue) {
+        throw new UnsupportedOperationException();
+    }
+
+    default V replace(K key, V value) {
+        throw new UnsupportedOperationException();
+    }
+
+    default V computeIfAbsent(K key,
+                              Function<? super K, ? extends V> mappingFunction) {
+        throw new UnsupportedOperationException();
+    }
+
+    default V computeIfPresent(K key,
+                               BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+        throw new UnsupportedOperationException();
+    }
+
+    default V compute(K key,
+                      BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+        throw new UnsupportedOperationException();
+    }
+
+    default V merge(K key, V value,
+                    BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+        throw new UnsupportedOperationException();
+    }
+}
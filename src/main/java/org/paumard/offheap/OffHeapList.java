@@ -0,0 +1,100 @@
+/*
+ * Copyright (C) 2016 Jos Paumard
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+
+package org.paumard.offheap;
+
+import java.nio.ByteBuffer;
+import java.util.Collection;
+import java.util.Objects;
+
+import org.paumard.collection.IndexedList;
+
+/**
+ * An immutable list of fixed-width records, stored outside of the Java heap
+ * in a direct byte buffer. As for the other lists of this project, the list
+ * is a function from an index to an element: {@code get(i)} decodes the
+ * record at index i with the codec of the list, each time it is called.
+ * <p>
+ * Its spliterator splits by index range, so that a parallel stream over a
+ * large list decodes each part of the buffer in its own thread.
+ */
+public interface OffHeapList<E> extends IndexedList<E> {
+
+    static <E> OffHeapList<E> copyOf(Collection<? extends E> collection, RecordCodec<E> codec) {
+        Builder<E> builder = builder(codec, collection.size());
+        collection.forEach(builder::add);
+        return builder.build();
+    }
+
+    /**
+     * Reads the records between the position and the limit of the buffer, which
+     * is not copied, with its byte order. The buffer must not be modified
+     * afterwards, and must hold a whole number of records.
+     */
+    static <E> OffHeapList<E> wrap(ByteBuffer buffer, RecordCodec<E> codec) {
+        return RecordLists.list(buffer, codec);
+    }
+
+    static <E> Builder<E> builder(RecordCodec<E> codec, int capacity) {
+        return new Builder<>(codec, capacity);
+    }
+
+    /**
+     * Returns a read-only view of the records of this list.
+     */
+    ByteBuffer buffer();
+
+    /**
+     * Encodes the elements one by one in a direct buffer allocated once,
+     * so that a large list never has to exist on the heap.
+     */
+    final class Builder<E> {
+
+        private final RecordCodec<E> codec;
+        private final ByteBuffer buffer;
+        private int size;
+        private boolean built;
+
+        private Builder(RecordCodec<E> codec, int capacity) {
+            this.codec = Objects.requireNonNull(codec);
+            long bytes = (long) capacity * codec.recordSize();
+            if (capacity < 0 || bytes > Integer.MAX_VALUE)
+                throw new IllegalArgumentException("Cannot hold " + capacity + " records of " + codec.recordSize() + " bytes");
+            this.buffer = ByteBuffer.allocateDirect((int) bytes);
+        }
+
+        public Builder<E> add(E element) {
+            Objects.requireNonNull(element);
+            if (built)
+                throw new IllegalStateException("List already built");
+            int offset = size * codec.recordSize();
+            if (offset >= buffer.capacity())
+                throw new IllegalStateException("Builder is full");
+            codec.encode(element, buffer, offset);
+            size++;
+            return this;
+        }
+
+        public OffHeapList<E> build() {
+            built = true;
+            ByteBuffer records = buffer.duplicate();
+            records.limit(size * codec.recordSize());
+            return wrap(records, codec);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+/*
+ * Copyright (C) 2016 Jos Paumard
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+
+package org.paumard.offheap;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Encodes and decodes elements as records of a fixed number of bytes.
+ * <p>
+ * Both methods must use the absolute get and put methods of the buffer, at
+ * the given offset, and leave its position untouched: the same buffer is read
+ * by several threads at once.
+ */
+public interface RecordCodec<E> {
+
+    int recordSize();
+
+    void encode(E element, ByteBuffer buffer, int offset);
+
+    E decode(ByteBuffer buffer, int offset);
+}
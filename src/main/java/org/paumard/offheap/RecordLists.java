@@ -0,0 +1,94 @@
+/*
+ * Copyright (C) 2016 Jos Paumard
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+
+package org.paumard.offheap;
+
+import java.nio.ByteBuffer;
+import java.util.Objects;
+
+import org.paumard.collection.CollectionContracts;
+
+/**
+ * The lists of records of {@link OffHeapList#wrap} and {@link MappedList#open}.
+ * Both read the records of a buffer in the same way: a mapped list only
+ * differs by its type.
+ */
+final class RecordLists {
+
+    private RecordLists() {
+    }
+
+    static <E> OffHeapList<E> list(ByteBuffer buffer, RecordCodec<E> codec) {
+        return new RecordList<>(buffer, codec);
+    }
+
+    static <E> MappedList<E> mappedList(ByteBuffer buffer, RecordCodec<E> codec) {
+        return new MappedRecordList<>(buffer, codec);
+    }
+
+    private static class RecordList<E> implements OffHeapList<E> {
+
+        private final ByteBuffer records;
+        private final RecordCodec<E> codec;
+        private final int size;
+        private int hashCode;
+
+        RecordList(ByteBuffer buffer, RecordCodec<E> codec) {
+            this.codec = Objects.requireNonNull(codec);
+            int recordSize = codec.recordSize();
+            if (recordSize <= 0)
+                throw new IllegalArgumentException("Record size must be positive: " + recordSize);
+            if (buffer.remaining() % recordSize != 0)
+                throw new IllegalArgumentException(
+                        "Buffer of " + buffer.remaining() + " bytes does not hold records of " + recordSize + " bytes");
+            this.records = buffer.slice().order(buffer.order());
+            this.size = records.capacity() / recordSize;
+        }
+
+        public E apply(int i) {
+            return codec.decode(records, i * codec.recordSize());
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public ByteBuffer buffer() {
+            return records.asReadOnlyBuffer().order(records.order());
+        }
+
+        public int hashCode() {
+            int h = hashCode;
+            if (h == 0) {
+                hashCode = h = CollectionContracts.listHashCode(this);
+            }
+            return h;
+        }
+
+        public boolean equals(Object o) {
+            return CollectionContracts.listEquals(this, o);
+        }
+    }
+
+    private static final class MappedRecordList<E> extends RecordList<E> implements MappedList<E> {
+
+        MappedRecordList(ByteBuffer buffer, RecordCodec<E> codec) {
+            super(buffer, codec);
+        }
+    }
+}
@@ -0,0 +1,220 @@
+/*
+ * Copyright (C) 2016 Jos Paumard
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+
+package org.paumard.serialization;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.NotSerializableException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.io.StreamCorruptedException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.paumard.collection.PersistentVector;
+import org.paumard.collection.SingletonList;
+import org.paumard.collection.SingletonSet;
+import org.paumard.collection.TwoElementsList;
+import org.paumard.collection.TwoElementsSet;
+import org.paumard.map.KeyValueEntry;
+import org.paumard.map.SingleElementMap;
+import org.paumard.map.TwoElementsMap;
+
+/**
+ * A compact binary format for the lambda collections and their entries.
+ * <p>
+ * Each value starts with a tag byte. The tag of a collection holds its kind in
+ * its high bits and its arity in its low bits, and is followed by its
+ * elements, or by the key and the value of each of its entries. A
+ * {@link PersistentVector} has no arity in its tag: its size follows as an
+ * int, then its elements. Strings, ints,
+ * longs and doubles are written with their own tag, other objects are written
+ * with {@code writeObject()}, and need an {@link ObjectOutput}.
+ * <p>
+ * A stream is not trusted on read: strings are read in bounded chunks, so that
+ * a forged length does not allocate more than the stream holds, and the
+ * collections cannot be nested deeper than {@value #MAX_DEPTH} levels.
+ */
+public final class LambdaCodec {
+
+    private static final int LIST = 0x10;
+    private static final int SET = 0x20;
+    private static final int MAP = 0x30;
+    private static final int ENTRY = 0x40;
+    private static final int VECTOR = 0x50;
+
+    private static final int STRING = 0x01;
+    private static final int INTEGER = 0x02;
+    private static final int LONG = 0x03;
+    private static final int DOUBLE = 0x04;
+    private static final int OBJECT = 0x0F;
+
+    private static final int MAX_DEPTH = 64;
+    private static final int CHUNK_SIZE = 8192;
+
+    private LambdaCodec() {
+    }
+
+    public static byte[] toByteArray(Object collection) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        write(collection, new DataOutputStream(bytes));
+        return bytes.toByteArray();
+    }
+
+    public static Object fromByteArray(byte[] bytes) throws IOException {
+        return read(new DataInputStream(new ByteArrayInputStream(bytes)));
+    }
+
+    public static void write(Object value, DataOutput out) throws IOException {
+        if (value instanceof SingletonList) {
+            out.writeByte(LIST | 1);
+            write(((SingletonList<?>) value).get(), out);
+        } else if (value instanceof TwoElementsList) {
+            out.writeByte(LIST | 2);
+            write(((TwoElementsList<?>) value).apply(0), out);
+            write(((TwoElementsList<?>) value).apply(1), out);
+        } else if (value instanceof SingletonSet) {
+            out.writeByte(SET | 1);
+            write(((SingletonSet<?>) value).get(), out);
+        } else if (value instanceof TwoElementsSet) {
+            out.writeByte(SET | 2);
+            write(((TwoElementsSet<?>) value).apply(0), out);
+            write(((TwoElementsSet<?>) value).apply(1), out);
+        } else if (value instanceof SingleElementMap) {
+            out.writeByte(MAP | 1);
+            writeEntry(((SingleElementMap<?, ?>) value).get(), out);
+        } else if (value instanceof TwoElementsMap) {
+            out.writeByte(MAP | 2);
+            writeEntry(((TwoElementsMap<?, ?>) value).apply(0), out);
+            writeEntry(((TwoElementsMap<?, ?>) value).apply(1), out);
+        } else if (value instanceof KeyValueEntry) {
+            out.writeByte(ENTRY | 1);
+            writeEntry((KeyValueEntry<?, ?>) value, out);
+        } else if (value instanceof PersistentVector) {
+            PersistentVector<?> vector = (PersistentVector<?>) value;
+            out.writeByte(VECTOR);
+            out.writeInt(vector.size());
+            for (Object element : vector) {
+                write(element, out);
+            }
+        } else if (value instanceof String) {
+            byte[] bytes = ((String) value).getBytes(StandardCharsets.UTF_8);
+            out.writeByte(STRING);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        } else if (value instanceof Integer) {
+            out.writeByte(INTEGER);
+            out.writeInt((Integer) value);
+        } else if (value instanceof Long) {
+            out.writeByte(LONG);
+            out.writeLong((Long) value);
+        } else if (value instanceof Double) {
+            out.writeByte(DOUBLE);
+            out.writeDouble((Double) value);
+        } else if (out instanceof ObjectOutput) {
+            out.writeByte(OBJECT);
+            ((ObjectOutput) out).writeObject(value);
+        } else {
+            throw new NotSerializableException(value.getClass().getName());
+        }
+    }
+
+    public static Object read(DataInput in) throws IOException {
+        return read(in, 0);
+    }
+
+    private static Object read(DataInput in, int depth) throws IOException {
+        int tag = in.readUnsignedByte();
+        // the tags of the collections are the only ones above the scalar tags
+        if (tag > OBJECT && depth == MAX_DEPTH)
+            throw new StreamCorruptedException("Collections nested deeper than " + MAX_DEPTH);
+        int d = depth + 1;
+        try {
+            switch (tag) {
+                case LIST | 1: return SingletonList.of(read(in, d));
+                case LIST | 2: return TwoElementsList.of(read(in, d), read(in, d));
+                case SET | 1: return SingletonSet.of(read(in, d));
+                case SET | 2: return TwoElementsSet.of(read(in, d), read(in, d));
+                case MAP | 1: return SingleElementMap.of(read(in, d), read(in, d));
+                case MAP | 2: return TwoElementsMap.of(read(in, d), read(in, d), read(in, d), read(in, d));
+                case ENTRY | 1: return KeyValueEntry.of(read(in, d), read(in, d));
+                case VECTOR: return readVector(in, d);
+                case STRING: return readString(in);
+                case INTEGER: return in.readInt();
+                case LONG: return in.readLong();
+                case DOUBLE: return in.readDouble();
+                case OBJECT: return readObject(in);
+                default: throw new StreamCorruptedException("Unknown tag " + tag);
+            }
+        } catch (IllegalArgumentException | NullPointerException e) {
+            throw new InvalidObjectException(e.getMessage());
+        }
+    }
+
+    private static void writeEntry(Map.Entry<?, ?> entry, DataOutput out) throws IOException {
+        write(entry.getKey(), out);
+        write(entry.getValue(), out);
+    }
+
+    private static PersistentVector<Object> readVector(DataInput in, int depth) throws IOException {
+        int size = in.readInt();
+        if (size < 0)
+            throw new StreamCorruptedException("Negative vector size " + size);
+        // the list grows with the elements actually read, not with the size
+        List<Object> elements = new ArrayList<>(Math.min(size, CHUNK_SIZE));
+        for (int i = 0; i < size; i++) {
+            elements.add(read(in, depth));
+        }
+        return PersistentVector.copyOf(elements);
+    }
+
+    private static String readString(DataInput in) throws IOException {
+        int length = in.readInt();
+        if (length < 0)
+            throw new StreamCorruptedException("Negative string length " + length);
+        // the buffer grows with the bytes actually read, not with the length
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(Math.min(length, CHUNK_SIZE));
+        byte[] chunk = new byte[Math.min(length, CHUNK_SIZE)];
+        for (int remaining = length; remaining > 0; remaining -= chunk.length) {
+            if (remaining < chunk.length)
+                chunk = new byte[remaining];
+            in.readFully(chunk);
+            bytes.write(chunk, 0, chunk.length);
+        }
+        return new String(bytes.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    private static Object readObject(DataInput in) throws IOException {
+        if (!(in instanceof ObjectInput))
+            throw new StreamCorruptedException("Object found outside of an object stream");
+        try {
+            return ((ObjectInput) in).readObject();
+        } catch (ClassNotFoundException e) {
+            throw new InvalidObjectException(e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright (C) 2016 Jos Paumard
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+
+package org.paumard.serialization;
+
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+
+/**
+ * Replaces a lambda collection in an object stream, through its
+ * {@code writeReplace()} method, and writes it with {@link LambdaCodec}. The
+ * collection is rebuilt with its {@code of()} factory when it is read back,
+ * so that its invariants are checked again.
+ */
+public final class SerializationProxy implements Externalizable {
+
+    private static final long serialVersionUID = 1L;
+
+    private Object collection;
+
+    public SerializationProxy() {
+    }
+
+    public SerializationProxy(Object collection) {
+        this.collection = collection;
+    }
+
+    @Override
+    public void writeExternal(ObjectOutput out) throws IOException {
+        LambdaCodec.write(collection, out);
+    }
+
+    @Override
+    public void readExternal(ObjectInput in) throws IOException {
+        collection = LambdaCodec.read(in);
+    }
+
+    private Object readResolve() {
+        return collection;
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright (C) 2016 Jos Paumard
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+
+package org.paumard.collection;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * The searches of {@link ArrayProbes} with the Vector API. The values are
+ * compared a vector at a time, and the values after the last full vector
+ * one by one. This class is only loaded if the module of the Vector API is
+ * there.
+ */
+final class VectorProbes {
+
+    private static final VectorSpecies<Integer> INTS = IntVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Long> LONGS = LongVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Double> DOUBLES = DoubleVector.SPECIES_PREFERRED;
+
+    private VectorProbes() {
+    }
+
+    static int indexOf(int[] array, int from, int to, int key) {
+        int i = from;
+        for (int bound = to - INTS.length(); i <= bound; i += INTS.length()) {
+            VectorMask<Integer> mask = IntVector.fromArray(INTS, array, i).eq(key);
+            if (mask.anyTrue())
+                return i + mask.firstTrue();
+        }
+        for (; i < to; i++) {
+            if (array[i] == key)
+                return i;
+        }
+        return -1;
+    }
+
+    static int indexOf(long[] array, int from, int to, long key) {
+        int i = from;
+        for (int bound = to - LONGS.length(); i <= bound; i += LONGS.length()) {
+            VectorMask<Long> mask = LongVector.fromArray(LONGS, array, i).eq(key);
+            if (mask.anyTrue())
+                return i + mask.firstTrue();
+        }
+        for (; i < to; i++) {
+            if (array[i] == key)
+                return i;
+        }
+        return -1;
+    }
+
+    // the key is neither NaN nor a zero, so == gives the same result as equals()
+    static int indexOf(double[] array, int from, int to, double key) {
+        int i = from;
+        for (int bound = to - DOUBLES.length(); i <= bound; i += DOUBLES.length()) {
+            VectorMask<Double> mask = DoubleVector.fromArray(DOUBLES, array, i).eq(key);
+            if (mask.anyTrue())
+                return i + mask.firstTrue();
+        }
+        for (; i < to; i++) {
+            if (array[i] == key)
+                return i;
+        }
+        return -1;
+    }
+}